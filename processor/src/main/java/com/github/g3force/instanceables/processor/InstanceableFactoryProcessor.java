@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Generates a factory class for each class with constructors annotated with <code>InstanceableConstructor</code>.
+ * The factories call the constructors directly and are picked up by <code>InstanceableClass</code> at runtime.
+ */
+@SupportedAnnotationTypes(InstanceableFactoryProcessor.ANNOTATION)
+public class InstanceableFactoryProcessor extends AbstractProcessor
+{
+    static final String ANNOTATION = "com.github.g3force.instanceables.InstanceableConstructor";
+    private static final String GENERATED_SUFFIX = "_InstanceFactories";
+    private static final String FACTORY_INTERFACE = "com.github.g3force.instanceables.IInstanceFactory";
+    private static final String CREATION_PATH = "com.github.g3force.instanceables.InstanceableClass.CreationPath";
+
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv)
+    {
+        Map<TypeElement, List<ExecutableElement>> constructorsByType = new LinkedHashMap<>();
+        for (TypeElement annotation : annotations)
+        {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation))
+            {
+                if (element.getKind() != ElementKind.CONSTRUCTOR)
+                {
+                    continue;
+                }
+                ExecutableElement constructor = (ExecutableElement) element;
+                if (isValid(constructor))
+                {
+                    constructorsByType.computeIfAbsent((TypeElement) constructor.getEnclosingElement(),
+                            t -> new ArrayList<>()).add(constructor);
+                }
+            }
+        }
+        for (Map.Entry<TypeElement, List<ExecutableElement>> entry : constructorsByType.entrySet())
+        {
+            generate(entry.getKey(), entry.getValue());
+        }
+        return true;
+    }
+
+
+    private boolean isValid(final ExecutableElement constructor)
+    {
+        if (!constructor.getModifiers().contains(Modifier.PUBLIC))
+        {
+            error(constructor, "Instanceable constructors must be public");
+            return false;
+        }
+        Element type = constructor.getEnclosingElement();
+        if (type.getModifiers().contains(Modifier.ABSTRACT))
+        {
+            error(constructor, "Instanceable constructors must not be in an abstract class");
+            return false;
+        }
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement())
+        {
+            if (e.getModifiers().contains(Modifier.PRIVATE))
+            {
+                error(constructor, "Classes with instanceable constructors must not be private");
+                return false;
+            }
+            if (e.getEnclosingElement() instanceof TypeElement && !e.getModifiers().contains(Modifier.STATIC)
+                    && e.getKind() == ElementKind.CLASS)
+            {
+                error(constructor, "Classes with instanceable constructors must not be inner classes");
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private void generate(final TypeElement type, final List<ExecutableElement> constructors)
+    {
+        String packageName = getPackage(type).getQualifiedName().toString();
+        String className = flatName(type) + GENERATED_SUFFIX;
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        String typeName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+        try
+        {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+            try (Writer writer = file.openWriter(); PrintWriter out = new PrintWriter(writer))
+            {
+                if (!packageName.isEmpty())
+                {
+                    out.println("package " + packageName + ";");
+                    out.println();
+                }
+                out.println("/**");
+                out.println(" * Factories for {@link " + typeName + "}, generated by "
+                        + InstanceableFactoryProcessor.class.getSimpleName() + ".");
+                out.println(" */");
+                out.println("public final class " + className);
+                out.println("{");
+                out.println("    private " + className + "()");
+                out.println("    {");
+                out.println("    }");
+                out.println();
+                out.println();
+                out.println("    public static " + FACTORY_INTERFACE + "<?> forParameters(final Class<?>[] types)");
+                out.println("    {");
+                for (int i = 0; i < constructors.size(); i++)
+                {
+                    out.println("        if (java.util.Arrays.equals(types, new Class<?>[] { "
+                            + parameterClasses(constructors.get(i)) + " }))");
+                    out.println("        {");
+                    out.println("            return new Factory" + i + "();");
+                    out.println("        }");
+                }
+                out.println("        return null;");
+                out.println("    }");
+                for (int i = 0; i < constructors.size(); i++)
+                {
+                    writeFactory(out, typeName, "Factory" + i, constructors.get(i));
+                }
+                out.println("}");
+            }
+        } catch (IOException err)
+        {
+            error(type, "Could not write " + qualifiedName + ": " + err.getMessage());
+        }
+    }
+
+
+    private void writeFactory(
+        final PrintWriter out,
+        final String typeName,
+        final String factoryName,
+        final ExecutableElement constructor
+    )
+    {
+        List<? extends VariableElement> params = constructor.getParameters();
+        out.println();
+        out.println("    @SuppressWarnings({ \"unchecked\", \"rawtypes\" })");
+        out.println("    private static final class " + factoryName + " implements "
+                + FACTORY_INTERFACE + "<" + typeName + ">");
+        out.println("    {");
+        out.println("        @Override");
+        out.println("        public " + typeName + " create(final Object[] args)");
+        out.println("        {");
+        out.println("            if (args.length != " + params.size() + ")");
+        out.println("            {");
+        out.println("                throw new IllegalArgumentException(\"Expected " + params.size()
+                + " arguments, got \" + args.length);");
+        out.println("            }");
+        StringBuilder arguments = new StringBuilder();
+        for (int i = 0; i < params.size(); i++)
+        {
+            if (i > 0)
+            {
+                arguments.append(", ");
+            }
+            arguments.append("(").append(castType(params.get(i).asType())).append(") args[").append(i).append("]");
+        }
+        out.println("            return new " + typeName + "(" + arguments + ");");
+        out.println("        }");
+        out.println();
+        out.println();
+        out.println("        @Override");
+        out.println("        public " + CREATION_PATH + " getCreationPath()");
+        out.println("        {");
+        out.println("            return " + CREATION_PATH + ".GENERATED_FACTORY;");
+        out.println("        }");
+        out.println("    }");
+    }
+
+
+    private String parameterClasses(final ExecutableElement constructor)
+    {
+        StringBuilder classes = new StringBuilder();
+        for (VariableElement param : constructor.getParameters())
+        {
+            if (classes.length() > 0)
+            {
+                classes.append(", ");
+            }
+            classes.append(processingEnv.getTypeUtils().erasure(param.asType())).append(".class");
+        }
+        return classes.toString();
+    }
+
+
+    private String castType(final TypeMirror type)
+    {
+        if (type.getKind().isPrimitive())
+        {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+
+    private static PackageElement getPackage(final Element element)
+    {
+        Element e = element;
+        while (!(e instanceof PackageElement))
+        {
+            e = e.getEnclosingElement();
+        }
+        return (PackageElement) e;
+    }
+
+
+    private static String flatName(final TypeElement type)
+    {
+        String name = type.getSimpleName().toString();
+        Element enclosing = type.getEnclosingElement();
+        if (enclosing instanceof TypeElement)
+        {
+            return flatName((TypeElement) enclosing) + "_" + name;
+        }
+        return name;
+    }
+
+
+    private void error(final Element element, final String message)
+    {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
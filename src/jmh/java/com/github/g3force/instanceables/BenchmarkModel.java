@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import java.util.List;
+
+
+/**
+ * A simple class with constructor and setter parameters that is instantiated in the benchmarks.
+ */
+public class BenchmarkModel
+{
+    private final int count;
+    private final double factor;
+    private final String name;
+    private EColor color = EColor.RED;
+    private List<Integer> ids;
+
+
+    public BenchmarkModel(final int count, final double factor, final String name)
+    {
+        this.count = count;
+        this.factor = factor;
+        this.name = name;
+    }
+
+
+    public void setColor(final EColor color)
+    {
+        this.color = color;
+    }
+
+
+    public void setIds(final List<Integer> ids)
+    {
+        this.ids = ids;
+    }
+
+
+    public int getCount()
+    {
+        return count;
+    }
+
+
+    public double getFactor()
+    {
+        return factor;
+    }
+
+
+    public String getName()
+    {
+        return name;
+    }
+
+
+    public EColor getColor()
+    {
+        return color;
+    }
+
+
+    public List<Integer> getIds()
+    {
+        return ids;
+    }
+
+
+    /**
+     * An enum parameter type
+     */
+    public enum EColor
+    {
+        RED,
+        GREEN,
+        BLUE,
+    }
+
+    @SuppressWarnings("unchecked")
+    private static InstanceableClass<BenchmarkModel> createInstanceableClass()
+    {
+        return new InstanceableClass<>(BenchmarkModel.class)
+                .ctorParam(Integer.TYPE, "count", "42")
+                .ctorParam(Double.TYPE, "factor", "1.5")
+                .ctorParam(String.class, "name", "model")
+                .setterParam(EColor.class, "color", "GREEN", BenchmarkModel::setColor)
+                .setterParam(List.class, "ids", "1,2,3", BenchmarkModel::setIds, Integer.class);
+    }
+
+
+    /**
+     * The instanceable enum of the model
+     */
+    public enum EBenchmarkModel implements IInstanceableEnum
+    {
+        MODEL(createInstanceableClass()),
+        ;
+
+        private final InstanceableClass<?> instanceableClass;
+
+
+        EBenchmarkModel(final InstanceableClass<?> instanceableClass)
+        {
+            this.instanceableClass = instanceableClass;
+        }
+
+
+        @Override
+        public InstanceableClass<?> getInstanceableClass()
+        {
+            return instanceableClass;
+        }
+
+
+        @Override
+        public IInstanceableEnum parse(final String name)
+        {
+            return valueOf(name);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks for creating instances of several classes with the same number of constructor parameters,
+ * so that call sites that are shared by all classes become megamorphic.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstanceableCallSiteBenchmark
+{
+    private final Object count = 7;
+    private final Object factor = 2.5;
+    private final Object name = "bench";
+    private final Object[] ctorArgs = { count, factor, name };
+    private InstanceableClass<?>[] methodHandleClasses;
+    private InstanceableClass<?>[] lambdaClasses;
+    private TypedConstructors.ICtor3<ModelA> ctorA;
+    private TypedConstructors.ICtor3<ModelB> ctorB;
+    private TypedConstructors.ICtor3<ModelC> ctorC;
+    private TypedConstructors.ICtor3<ModelD> ctorD;
+
+
+    @Setup
+    public void setup()
+    {
+        Class<?>[] models = { ModelA.class, ModelB.class, ModelC.class, ModelD.class };
+        methodHandleClasses = new InstanceableClass<?>[models.length];
+        lambdaClasses = new InstanceableClass<?>[models.length];
+        for (int i = 0; i < models.length; i++)
+        {
+            methodHandleClasses[i] = newInstanceableClass(models[i], false);
+            lambdaClasses[i] = newInstanceableClass(models[i], true);
+        }
+        ctorA = newInstanceableClass(ModelA.class, true).typedConstructor(TypedConstructors.ICtor3.class);
+        ctorB = newInstanceableClass(ModelB.class, true).typedConstructor(TypedConstructors.ICtor3.class);
+        ctorC = newInstanceableClass(ModelC.class, true).typedConstructor(TypedConstructors.ICtor3.class);
+        ctorD = newInstanceableClass(ModelD.class, true).typedConstructor(TypedConstructors.ICtor3.class);
+    }
+
+
+    private static <T> InstanceableClass<T> newInstanceableClass(final Class<T> impl, final boolean lambdaFactory)
+    {
+        return new InstanceableClass<>(impl)
+                .ctorParam(Integer.TYPE, "count", "42")
+                .ctorParam(Double.TYPE, "factor", "1.5")
+                .ctorParam(String.class, "name", "model")
+                .lambdaFactory(lambdaFactory)
+                .compile();
+    }
+
+
+    @Benchmark
+    public void newExpressions(final Blackhole bh)
+    {
+        bh.consume(new ModelA(7, 2.5, "bench"));
+        bh.consume(new ModelB(7, 2.5, "bench"));
+        bh.consume(new ModelC(7, 2.5, "bench"));
+        bh.consume(new ModelD(7, 2.5, "bench"));
+    }
+
+
+    @Benchmark
+    public void newInstanceMethodHandles(final Blackhole bh)
+    {
+        for (InstanceableClass<?> instanceableClass : methodHandleClasses)
+        {
+            bh.consume(instanceableClass.newInstance(ctorArgs));
+        }
+    }
+
+
+    @Benchmark
+    public void newInstanceLambdaFactories(final Blackhole bh)
+    {
+        for (InstanceableClass<?> instanceableClass : lambdaClasses)
+        {
+            bh.consume(instanceableClass.newInstance(ctorArgs));
+        }
+    }
+
+
+    @Benchmark
+    public void typedConstructors(final Blackhole bh)
+    {
+        bh.consume(ctorA.create(count, factor, name));
+        bh.consume(ctorB.create(count, factor, name));
+        bh.consume(ctorC.create(count, factor, name));
+        bh.consume(ctorD.create(count, factor, name));
+    }
+
+
+    public static class ModelA extends BenchmarkModel
+    {
+        public ModelA(final int count, final double factor, final String name)
+        {
+            super(count, factor, name);
+        }
+    }
+
+    public static class ModelB extends BenchmarkModel
+    {
+        public ModelB(final int count, final double factor, final String name)
+        {
+            super(count, factor, name);
+        }
+    }
+
+    public static class ModelC extends BenchmarkModel
+    {
+        public ModelC(final int count, final double factor, final String name)
+        {
+            super(count, factor, name);
+        }
+    }
+
+    public static class ModelD extends BenchmarkModel
+    {
+        public ModelD(final int count, final double factor, final String name)
+        {
+            super(count, factor, name);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks for the instance creation paths of {@link InstanceableClass}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstanceableClassBenchmark
+{
+    private final List<String> values = Arrays.asList("7", "2.5", "bench", "BLUE", "4,5,6");
+    private final Object[] ctorArgs = { 7, 2.5, "bench" };
+    private InstanceableClass<BenchmarkModel> instanceableClass;
+    private InstanceableClass<BenchmarkModel> lambdaInstanceableClass;
+    private InstanceableSetter<BenchmarkModel.EColor, BenchmarkModel> colorSetter;
+    private BenchmarkModel model;
+
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup()
+    {
+        instanceableClass = (InstanceableClass<BenchmarkModel>) BenchmarkModel.EBenchmarkModel.MODEL
+                .getInstanceableClass();
+        lambdaInstanceableClass = new InstanceableClass<>(BenchmarkModel.class)
+                .ctorParam(Integer.TYPE, "count", "42")
+                .ctorParam(Double.TYPE, "factor", "1.5")
+                .ctorParam(String.class, "name", "model")
+                .lambdaFactory(true)
+                .compile();
+        colorSetter = new InstanceableSetter<>(BenchmarkModel.EColor.class, "color", "GREEN",
+                BenchmarkModel::setColor);
+        model = instanceableClass.newDefaultInstance();
+    }
+
+
+    @Benchmark
+    public BenchmarkModel newInstanceArgs()
+    {
+        return instanceableClass.newInstance(ctorArgs);
+    }
+
+
+    @Benchmark
+    public BenchmarkModel newInstanceArgsLambda()
+    {
+        return lambdaInstanceableClass.newInstance(ctorArgs);
+    }
+
+
+    @Benchmark
+    public BenchmarkModel newInstanceValues()
+    {
+        return instanceableClass.newInstance(values);
+    }
+
+
+    @Benchmark
+    public BenchmarkModel newDefaultInstance()
+    {
+        return instanceableClass.newDefaultInstance();
+    }
+
+
+    @Benchmark
+    public BenchmarkModel applySetter()
+    {
+        colorSetter.apply(model, "BLUE");
+        return model;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Throughput of a frozen {@link InstanceableClass} that is shared by one, four and all available threads.
+ * With a lock-free creation plan, the throughput should grow with the number of threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstanceableClassConcurrencyBenchmark
+{
+    private final List<String> values = Arrays.asList("7", "2.5", "bench", "BLUE", "4,5,6");
+    private InstanceableClass<BenchmarkModel> instanceableClass;
+
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup()
+    {
+        instanceableClass = new InstanceableClass<>(BenchmarkModel.class)
+                .ctorParam(Integer.TYPE, "count", "42")
+                .ctorParam(Double.TYPE, "factor", "1.5")
+                .ctorParam(String.class, "name", "model")
+                .setterParam(BenchmarkModel.EColor.class, "color", "GREEN", BenchmarkModel::setColor)
+                .setterParam(List.class, "ids", "1,2,3", BenchmarkModel::setIds, Integer.class)
+                .freeze();
+    }
+
+
+    @Benchmark
+    @Threads(1)
+    public BenchmarkModel newInstanceValues1()
+    {
+        return instanceableClass.newInstance(values);
+    }
+
+
+    @Benchmark
+    @Threads(4)
+    public BenchmarkModel newInstanceValues4()
+    {
+        return instanceableClass.newInstance(values);
+    }
+
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public BenchmarkModel newInstanceValuesMax()
+    {
+        return instanceableClass.newInstance(values);
+    }
+
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public BenchmarkModel newDefaultInstanceMax()
+    {
+        return instanceableClass.newDefaultInstance();
+    }
+
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<IInstanceableParameter> getAllParamsMax()
+    {
+        return instanceableClass.getAllParams();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmark for {@link InstanceablePanel#createInstance()}. Run it with <code>-Djava.awt.headless=true</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class InstanceablePanelBenchmark
+{
+    private InstanceablePanel panel;
+    private Object lastInstance;
+
+
+    @Setup
+    public void setup()
+    {
+        panel = new InstanceablePanel(BenchmarkModel.EBenchmarkModel.values());
+        panel.addObserver(instance -> lastInstance = instance);
+    }
+
+
+    @Benchmark
+    public Object createInstance()
+    {
+        panel.createInstance();
+        return lastInstance;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks for parsing parameter values with {@link InstanceableParameter#parseString(String)},
+ * with the default converter and with the {@link FastValueConverter}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstanceableParameterBenchmark
+{
+    private final InstanceableParameter intParam = new InstanceableParameter(Integer.TYPE, "int", "0");
+    private final InstanceableParameter doubleParam = new InstanceableParameter(Double.TYPE, "double", "0");
+    private final InstanceableParameter enumParam = new InstanceableParameter(
+            BenchmarkModel.EColor.class, "enum", "RED");
+    private final InstanceableParameter listParam = new InstanceableParameter(
+            List.class, "list", "", Integer.class);
+    private final InstanceableParameter fastIntParam = new InstanceableParameter(Integer.TYPE, "int", "0")
+            .converter(new FastValueConverter());
+    private final InstanceableParameter fastDoubleParam = new InstanceableParameter(Double.TYPE, "double", "0")
+            .converter(new FastValueConverter());
+    private final InstanceableParameter fastEnumParam = new InstanceableParameter(
+            BenchmarkModel.EColor.class, "enum", "RED").converter(new FastValueConverter());
+
+
+    @Benchmark
+    public Object parseInt()
+    {
+        return intParam.parseString("12345");
+    }
+
+
+    @Benchmark
+    public Object parseDouble()
+    {
+        return doubleParam.parseString("3.14159");
+    }
+
+
+    @Benchmark
+    public Object parseEnum()
+    {
+        return enumParam.parseString("BLUE");
+    }
+
+
+    @Benchmark
+    public Object parseList()
+    {
+        return listParam.parseString("1,2,3,4,5");
+    }
+
+
+    @Benchmark
+    public Object parseIntFast()
+    {
+        return fastIntParam.parseString("12345");
+    }
+
+
+    @Benchmark
+    public Object parseDoubleFast()
+    {
+        return fastDoubleParam.parseString("3.14159");
+    }
+
+
+    @Benchmark
+    public Object parseEnumFast()
+    {
+        return fastEnumParam.parseString("BLUE");
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * The constructor arguments of an {@link InstanceableClass} in typed slots.
+ * Arguments of type <code>int</code>, <code>long</code>, <code>double</code> and <code>boolean</code>
+ * are stored in primitive arrays, so they are passed to the constructor without boxing
+ * (see {@link InstanceableClass#newInstance(ArgumentVector)}).
+ * <p>
+ * A vector is not thread-safe, but it can be reused for any number of instances.
+ */
+public final class ArgumentVector
+{
+    private final List<InstanceableParameter> params;
+    private final Class<?>[] types;
+    private final IValueConverter converter;
+    private final Kind[] kinds;
+    private final int[] slots;
+    private final int[] ints;
+    private final long[] longs;
+    private final double[] doubles;
+    private final boolean[] booleans;
+    private final Object[] objects;
+
+
+    /**
+     * @param params the constructor parameters
+     * @param types the parameter types (shared by all vectors of one class)
+     * @param converter the converter of the class, or null
+     */
+    ArgumentVector(final List<InstanceableParameter> params, final Class<?>[] types, final IValueConverter converter)
+    {
+        this.params = params;
+        this.types = types;
+        this.converter = converter;
+        kinds = new Kind[types.length];
+        slots = new int[types.length];
+        int[] counts = new int[Kind.values().length];
+        for (int i = 0; i < types.length; i++)
+        {
+            kinds[i] = Kind.of(types[i]);
+            slots[i] = counts[kinds[i].ordinal()]++;
+        }
+        ints = new int[counts[Kind.INT.ordinal()]];
+        longs = new long[counts[Kind.LONG.ordinal()]];
+        doubles = new double[counts[Kind.DOUBLE.ordinal()]];
+        booleans = new boolean[counts[Kind.BOOLEAN.ordinal()]];
+        objects = new Object[counts[Kind.OBJECT.ordinal()]];
+    }
+
+
+    private ArgumentVector(final ArgumentVector original)
+    {
+        params = original.params;
+        types = original.types;
+        converter = original.converter;
+        kinds = original.kinds;
+        slots = original.slots;
+        ints = original.ints.length == 0 ? original.ints : original.ints.clone();
+        longs = original.longs.length == 0 ? original.longs : original.longs.clone();
+        doubles = original.doubles.length == 0 ? original.doubles : original.doubles.clone();
+        booleans = original.booleans.length == 0 ? original.booleans : original.booleans.clone();
+        objects = original.objects.length == 0 ? original.objects : original.objects.clone();
+    }
+
+
+    /**
+     * @return a copy of this vector with its own values
+     */
+    public ArgumentVector copy()
+    {
+        return new ArgumentVector(this);
+    }
+
+
+    /**
+     * @return the number of arguments
+     */
+    public int size()
+    {
+        return types.length;
+    }
+
+
+    public ArgumentVector setInt(final int index, final int value)
+    {
+        ints[slot(index, Kind.INT)] = value;
+        return this;
+    }
+
+
+    public ArgumentVector setLong(final int index, final long value)
+    {
+        longs[slot(index, Kind.LONG)] = value;
+        return this;
+    }
+
+
+    public ArgumentVector setDouble(final int index, final double value)
+    {
+        doubles[slot(index, Kind.DOUBLE)] = value;
+        return this;
+    }
+
+
+    public ArgumentVector setBoolean(final int index, final boolean value)
+    {
+        booleans[slot(index, Kind.BOOLEAN)] = value;
+        return this;
+    }
+
+
+    /**
+     * Set an argument of any type. Values of primitive slots are unboxed.
+     *
+     * @param index the index of the constructor parameter
+     * @param value the value
+     * @return this
+     * @throws IllegalArgumentException if the value is null and the argument is of a primitive type
+     */
+    public ArgumentVector setValue(final int index, final Object value)
+    {
+        if (value == null && kinds[index] != Kind.OBJECT)
+        {
+            throw new IllegalArgumentException("Argument " + index + " of primitive type " + types[index]
+                    + " can not be null");
+        }
+        switch (kinds[index])
+        {
+            case INT:
+                return setInt(index, (Integer) value);
+            case LONG:
+                return setLong(index, (Long) value);
+            case DOUBLE:
+                return setDouble(index, (Double) value);
+            case BOOLEAN:
+                return setBoolean(index, (Boolean) value);
+            default:
+                objects[slots[index]] = value;
+                return this;
+        }
+    }
+
+
+    /**
+     * Parse a value with the constructor parameter and set it.
+     * Values of primitive slots are parsed without boxing, unless the parameter has a parse cache.
+     *
+     * @param index the index of the constructor parameter
+     * @param value the string representation of the value
+     * @return this
+     */
+    public ArgumentVector set(final int index, final String value)
+    {
+        InstanceableParameter param = params.get(index);
+        if (value != null)
+        {
+            switch (kinds[index])
+            {
+                case INT:
+                    return setInt(index, param.parseInt(value, converter));
+                case LONG:
+                    return setLong(index, param.parseLong(value, converter));
+                case DOUBLE:
+                    return setDouble(index, param.parseDouble(value, converter));
+                case BOOLEAN:
+                    return setBoolean(index, param.parseBoolean(value, converter));
+                default:
+                    break;
+            }
+        }
+        return setValue(index, param.parseString(value, converter));
+    }
+
+
+    private int slot(final int index, final Kind kind)
+    {
+        if (kinds[index] != kind)
+        {
+            throw new IllegalArgumentException("Argument " + index + " is of type " + types[index]);
+        }
+        return slots[index];
+    }
+
+
+    Class<?>[] getTypes()
+    {
+        return types;
+    }
+
+
+    Kind getKind(final int index)
+    {
+        return kinds[index];
+    }
+
+
+    int getSlot(final int index)
+    {
+        return slots[index];
+    }
+
+
+    int getInt(final int slot)
+    {
+        return ints[slot];
+    }
+
+
+    long getLong(final int slot)
+    {
+        return longs[slot];
+    }
+
+
+    double getDouble(final int slot)
+    {
+        return doubles[slot];
+    }
+
+
+    boolean getBoolean(final int slot)
+    {
+        return booleans[slot];
+    }
+
+
+    Object getObject(final int slot)
+    {
+        return objects[slot];
+    }
+
+
+    @Override
+    public String toString()
+    {
+        Object[] values = new Object[types.length];
+        for (int i = 0; i < types.length; i++)
+        {
+            switch (kinds[i])
+            {
+                case INT:
+                    values[i] = ints[slots[i]];
+                    break;
+                case LONG:
+                    values[i] = longs[slots[i]];
+                    break;
+                case DOUBLE:
+                    values[i] = doubles[slots[i]];
+                    break;
+                case BOOLEAN:
+                    values[i] = booleans[slots[i]];
+                    break;
+                default:
+                    values[i] = objects[slots[i]];
+            }
+        }
+        return "ArgumentVector" + Arrays.toString(values);
+    }
+
+
+    /**
+     * The storage kind of an argument
+     */
+    enum Kind
+    {
+        INT,
+        LONG,
+        DOUBLE,
+        BOOLEAN,
+        OBJECT,
+        ;
+
+
+        static Kind of(final Class<?> type)
+        {
+            if (type == Integer.TYPE)
+            {
+                return INT;
+            } else if (type == Long.TYPE)
+            {
+                return LONG;
+            } else if (type == Double.TYPE)
+            {
+                return DOUBLE;
+            } else if (type == Boolean.TYPE)
+            {
+                return BOOLEAN;
+            }
+            return OBJECT;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Delivers new instances to observers on an executor.
+ * Each observer has its own bounded queue that is drained by at most one task at a time,
+ * so every observer receives the instances in the order they were created.
+ */
+final class AsyncObserverDispatcher
+{
+    private static final Logger log = LogManager.getLogger(AsyncObserverDispatcher.class.getName());
+    /** how often a creator that is blocked by a full queue checks if the observer was removed */
+    private static final long BLOCK_POLL_MILLIS = 50;
+
+    private final Executor executor;
+    private final int queueCapacity;
+    private final InstanceablePanel.BackpressurePolicy policy;
+    private final Map<IInstanceableObserver, ObserverQueue> queues = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private volatile AsyncObserverDispatcher successor = null;
+    private volatile boolean closed = false;
+
+
+    AsyncObserverDispatcher(
+        final Executor executor,
+        final int queueCapacity,
+        final InstanceablePanel.BackpressurePolicy policy
+    )
+    {
+        if (queueCapacity <= 0)
+        {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        }
+        this.executor = executor == null ? defaultExecutor() : executor;
+        this.queueCapacity = queueCapacity;
+        this.policy = policy;
+    }
+
+
+    /**
+     * @return the shared executor with a virtual thread per task, if available,
+     *         or else a cached pool of daemon threads
+     */
+    static Executor defaultExecutor()
+    {
+        return DefaultExecutor.INSTANCE;
+    }
+
+
+    private static Executor createDefaultExecutor()
+    {
+        try
+        {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException err)
+        {
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "InstanceableObserver");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+
+    /**
+     * @param observers the registered observers, an observer must be removed from it before {@link #remove}
+     * @param instance the new instance
+     */
+    void dispatch(final Collection<IInstanceableObserver> observers, final Object instance)
+    {
+        for (IInstanceableObserver observer : observers)
+        {
+            dispatch(observers, observer, instance);
+        }
+    }
+
+
+    private void dispatch(
+        final Collection<IInstanceableObserver> observers,
+        final IInstanceableObserver observer,
+        final Object instance
+    )
+    {
+        ObserverQueue queue = queues.compute(observer,
+                (o, q) -> q != null || closed || !observers.contains(o) ? q : new ObserverQueue(o, new Object()));
+        if ((queue == null || !queue.offer(instance)) && closed && observers.contains(observer))
+        {
+            AsyncObserverDispatcher next = successor;
+            if (next != null)
+            {
+                next.dispatch(observers, observer, instance);
+            } else
+            {
+                notifyObserver(observer, instance);
+            }
+        }
+    }
+
+
+    /**
+     * Stop this dispatcher. The pending instances of each observer are handed over to the next dispatcher,
+     * which delivers them before any newer instance, or are delivered on the calling thread, if there is none.
+     * Instances that are dispatched to this dispatcher afterwards are forwarded the same way.
+     * A notification that is running is finished before the next dispatcher notifies the same observer.
+     *
+     * @param next the dispatcher that replaces this one, null if the observers are notified synchronously
+     */
+    void close(final AsyncObserverDispatcher next)
+    {
+        successor = next;
+        closed = true;
+        while (!queues.isEmpty())
+        {
+            for (ObserverQueue queue : queues.values())
+            {
+                queue.handOver(next);
+            }
+        }
+    }
+
+
+    private void adopt(
+        final IInstanceableObserver observer,
+        final Object deliveryLock,
+        final List<Object> pending
+    )
+    {
+        ObserverQueue queue = queues.computeIfAbsent(observer, o -> new ObserverQueue(o, deliveryLock));
+        for (Object instance : pending)
+        {
+            if (!queue.instances.offer(instance))
+            {
+                dropped.increment();
+            }
+        }
+        if (!queue.instances.isEmpty())
+        {
+            queue.schedule();
+        }
+    }
+
+
+    /**
+     * Stop delivering to an observer and discard its pending instances. Creators that are blocked by its full queue
+     * give up.
+     *
+     * @param observer the observer
+     */
+    void remove(final IInstanceableObserver observer)
+    {
+        ObserverQueue queue = queues.remove(observer);
+        if (queue != null)
+        {
+            queue.removed = true;
+            queue.instances.clear();
+        }
+    }
+
+
+    int getQueueDepth()
+    {
+        int depth = 0;
+        for (ObserverQueue queue : queues.values())
+        {
+            depth += queue.instances.size();
+        }
+        return depth;
+    }
+
+
+    int getQueueDepth(final IInstanceableObserver observer)
+    {
+        ObserverQueue queue = queues.get(observer);
+        return queue == null ? 0 : queue.instances.size();
+    }
+
+
+    long getDropped()
+    {
+        return dropped.sum();
+    }
+
+
+    private static void notifyObserver(final IInstanceableObserver observer, final Object instance)
+    {
+        try
+        {
+            observer.onNewInstance(instance);
+        } catch (RuntimeException err)
+        {
+            log.error("Observer {} failed on new instance {}", observer, instance, err);
+        }
+    }
+
+
+    /**
+     * Holder of the shared default executor, created on first use
+     */
+    private static final class DefaultExecutor
+    {
+        private static final Executor INSTANCE = createDefaultExecutor();
+    }
+
+
+    private class ObserverQueue implements Runnable
+    {
+        private final IInstanceableObserver observer;
+        /** held while the observer is notified, shared with the queue that replaces this one in {@link #close} */
+        private final Object deliveryLock;
+        private final BlockingQueue<Object> instances = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private volatile boolean removed = false;
+
+
+        ObserverQueue(final IInstanceableObserver observer, final Object deliveryLock)
+        {
+            this.observer = observer;
+            this.deliveryLock = deliveryLock;
+        }
+
+
+        /**
+         * @param instance the new instance
+         * @return false, if the queue was removed or closed before the instance was added
+         */
+        boolean offer(final Object instance)
+        {
+            if (removed)
+            {
+                return false;
+            }
+            switch (policy)
+            {
+                case DROP:
+                    if (!instances.offer(instance))
+                    {
+                        dropped.increment();
+                    }
+                    break;
+                case BLOCK:
+                    try
+                    {
+                        while (!instances.offer(instance, BLOCK_POLL_MILLIS, TimeUnit.MILLISECONDS))
+                        {
+                            if (removed)
+                            {
+                                return giveUp();
+                            }
+                        }
+                    } catch (InterruptedException err)
+                    {
+                        Thread.currentThread().interrupt();
+                        dropped.increment();
+                    }
+                    break;
+                case COALESCE:
+                    while (!instances.offer(instance))
+                    {
+                        if (instances.poll() != null)
+                        {
+                            dropped.increment();
+                        }
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown policy: " + policy);
+            }
+            if (removed)
+            {
+                return takeBack(instance);
+            }
+            schedule();
+            return true;
+        }
+
+
+        /**
+         * Wait for a running hand-over, the instance was not added
+         */
+        private synchronized boolean giveUp()
+        {
+            return false;
+        }
+
+
+        /**
+         * Wait for a running hand-over and take the instance back, if it was not handed over or discarded
+         */
+        private synchronized boolean takeBack(final Object instance)
+        {
+            return !instances.remove(instance);
+        }
+
+
+        /**
+         * Remove this queue and move its pending instances to the next dispatcher or deliver them
+         */
+        synchronized void handOver(final AsyncObserverDispatcher next)
+        {
+            removed = true;
+            List<Object> pending = new ArrayList<>(instances.size());
+            instances.drainTo(pending);
+            if (next != null)
+            {
+                next.adopt(observer, deliveryLock, pending);
+            } else
+            {
+                synchronized (deliveryLock)
+                {
+                    for (Object instance : pending)
+                    {
+                        notifyObserver(observer, instance);
+                    }
+                }
+            }
+            queues.remove(observer, this);
+        }
+
+
+        private void schedule()
+        {
+            if (scheduled.compareAndSet(false, true))
+            {
+                try
+                {
+                    executor.execute(this);
+                } catch (RejectedExecutionException err)
+                {
+                    scheduled.set(false);
+                    log.error("Could not schedule the notification of observer {}", observer, err);
+                    throw err;
+                }
+            }
+        }
+
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                while (true)
+                {
+                    synchronized (deliveryLock)
+                    {
+                        Object instance = removed ? null : instances.poll();
+                        if (instance == null)
+                        {
+                            break;
+                        }
+                        notifyObserver(observer, instance);
+                    }
+                }
+            } finally
+            {
+                scheduled.set(false);
+                if (!removed && !instances.isEmpty())
+                {
+                    schedule();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+
+/**
+ * A bounded, thread-safe cache with an approximated LRU eviction (second chance / clock).
+ * Reads do not lock, entries that were read since the last eviction pass get a second chance.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class BoundedCache<K, V>
+{
+    private final int maximumSize;
+    private final ConcurrentHashMap<K, Node<V>> entries = new ConcurrentHashMap<>();
+    private final Queue<K> clock = new ConcurrentLinkedQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+
+    BoundedCache(final int maximumSize)
+    {
+        if (maximumSize <= 0)
+        {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+
+    /**
+     * Get the cached value or load and cache it, if it is not present.
+     * Null values are not cached.
+     *
+     * @param key the key
+     * @param loader the function to load an absent value
+     * @return the cached or loaded value
+     */
+    V get(final K key, final Function<? super K, ? extends V> loader)
+    {
+        Node<V> node = entries.get(key);
+        if (node != null)
+        {
+            if (!node.referenced)
+            {
+                node.referenced = true;
+            }
+            hits.increment();
+            return node.value;
+        }
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null && entries.putIfAbsent(key, new Node<>(value)) == null)
+        {
+            clock.add(key);
+            evict();
+        }
+        return value;
+    }
+
+
+    private void evict()
+    {
+        while (entries.size() > maximumSize)
+        {
+            K candidate = clock.poll();
+            if (candidate == null)
+            {
+                return;
+            }
+            Node<V> node = entries.get(candidate);
+            if (node != null && node.referenced)
+            {
+                node.referenced = false;
+                clock.add(candidate);
+            } else if (node != null)
+            {
+                entries.remove(candidate, node);
+            }
+        }
+    }
+
+
+    long getHits()
+    {
+        return hits.sum();
+    }
+
+
+    long getMisses()
+    {
+        return misses.sum();
+    }
+
+
+    int size()
+    {
+        return entries.size();
+    }
+
+
+    private static class Node<V>
+    {
+        private final V value;
+        private volatile boolean referenced = false;
+
+
+        Node(final V value)
+        {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import com.github.g3force.s2vconverter.String2ValueConverter;
+
+import java.util.List;
+
+
+/**
+ * Parses all values with {@link String2ValueConverter#getDefault()}.
+ * Primitives are parsed without boxing by a {@link FastValueConverter} that delegates to this converter.
+ */
+final class DefaultValueConverter implements IValueConverter
+{
+    static final DefaultValueConverter INSTANCE = new DefaultValueConverter();
+
+    private final String2ValueConverter valueConverter = String2ValueConverter.getDefault();
+    private final FastValueConverter primitives = new FastValueConverter(this);
+
+
+    private DefaultValueConverter()
+    {
+    }
+
+
+    @Override
+    public Object parse(final Class<?> impl, final List<Class<?>> genericsImpls, final String value)
+    {
+        if (genericsImpls.isEmpty())
+        {
+            return valueConverter.parseString(impl, value);
+        }
+        return valueConverter.parseString(impl, genericsImpls, value);
+    }
+
+
+    @Override
+    public int parseInt(final String value)
+    {
+        return primitives.parseInt(value);
+    }
+
+
+    @Override
+    public long parseLong(final String value)
+    {
+        return primitives.parseLong(value);
+    }
+
+
+    @Override
+    public double parseDouble(final String value)
+    {
+        return primitives.parseDouble(value);
+    }
+
+
+    @Override
+    public boolean parseBoolean(final String value)
+    {
+        return primitives.parseBoolean(value);
+    }
+}
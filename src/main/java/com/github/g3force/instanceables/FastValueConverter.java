@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A converter with specialized parsers for primitives, their wrappers and enums.
+ * Enum constants are looked up in a map that is built once per enum type.
+ * Values that these parsers do not accept, like numbers in other formats,
+ * and all other types are passed to a delegate, so the results match the delegate for all valid inputs.
+ * Values of type <code>int</code>, <code>long</code> and <code>double</code> are parsed without boxing.
+ */
+public class FastValueConverter implements IValueConverter
+{
+    private static final ClassValue<Map<String, Object>> ENUM_CONSTANTS = new ClassValue<Map<String, Object>>()
+    {
+        @Override
+        protected Map<String, Object> computeValue(final Class<?> type)
+        {
+            Map<String, Object> constants = new HashMap<>();
+            for (Object constant : type.getEnumConstants())
+            {
+                constants.put(((Enum<?>) constant).name(), constant);
+            }
+            return Collections.unmodifiableMap(constants);
+        }
+    };
+
+    private final IValueConverter delegate;
+
+
+    /**
+     * Create a converter that delegates to {@link IValueConverter#getDefault()}
+     */
+    public FastValueConverter()
+    {
+        this(IValueConverter.getDefault());
+    }
+
+
+    /**
+     * @param delegate the converter for all values that are not handled by this converter
+     */
+    public FastValueConverter(final IValueConverter delegate)
+    {
+        this.delegate = delegate;
+    }
+
+
+    @Override
+    public Object parse(final Class<?> impl, final List<Class<?>> genericsImpls, final String value)
+    {
+        if (value == null || !genericsImpls.isEmpty())
+        {
+            return delegate.parse(impl, genericsImpls, value);
+        }
+        Object parsed;
+        try
+        {
+            parsed = parseFast(impl, value);
+        } catch (NumberFormatException err)
+        {
+            parsed = null;
+        }
+        return parsed == null ? delegate.parse(impl, genericsImpls, value) : parsed;
+    }
+
+
+    @Override
+    public int parseInt(final String value)
+    {
+        try
+        {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException err)
+        {
+            return (Integer) delegate.parse(Integer.TYPE, Collections.emptyList(), value);
+        }
+    }
+
+
+    @Override
+    public long parseLong(final String value)
+    {
+        try
+        {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException err)
+        {
+            return (Long) delegate.parse(Long.TYPE, Collections.emptyList(), value);
+        }
+    }
+
+
+    @Override
+    public double parseDouble(final String value)
+    {
+        try
+        {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException err)
+        {
+            return (Double) delegate.parse(Double.TYPE, Collections.emptyList(), value);
+        }
+    }
+
+
+    @Override
+    public boolean parseBoolean(final String value)
+    {
+        Boolean parsed = parseBooleanOrNull(value.trim());
+        return parsed == null ? (Boolean) delegate.parse(Boolean.TYPE, Collections.emptyList(), value) : parsed;
+    }
+
+
+    private static Object parseFast(final Class<?> impl, final String value)
+    {
+        if (impl.isEnum())
+        {
+            return ENUM_CONSTANTS.get(impl).get(value);
+        }
+        if (!impl.isPrimitive() && !Number.class.isAssignableFrom(impl) && impl != Boolean.class)
+        {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (impl == Integer.TYPE || impl == Integer.class)
+        {
+            return Integer.valueOf(trimmed);
+        } else if (impl == Double.TYPE || impl == Double.class)
+        {
+            return Double.valueOf(trimmed);
+        } else if (impl == Long.TYPE || impl == Long.class)
+        {
+            return Long.valueOf(trimmed);
+        } else if (impl == Float.TYPE || impl == Float.class)
+        {
+            return Float.valueOf(trimmed);
+        } else if (impl == Boolean.TYPE || impl == Boolean.class)
+        {
+            return parseBooleanOrNull(trimmed);
+        } else if (impl == Short.TYPE || impl == Short.class)
+        {
+            return Short.valueOf(trimmed);
+        } else if (impl == Byte.TYPE || impl == Byte.class)
+        {
+            return Byte.valueOf(trimmed);
+        }
+        return null;
+    }
+
+
+    private static Boolean parseBooleanOrNull(final String value)
+    {
+        if ("true".equalsIgnoreCase(value))
+        {
+            return Boolean.TRUE;
+        } else if ("false".equalsIgnoreCase(value))
+        {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+}
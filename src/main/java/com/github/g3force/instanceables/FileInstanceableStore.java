@@ -0,0 +1,420 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Store that persists its values in a file.
+ * <p>
+ * Changes are collected and written after a debounce delay, so that frequent changes result in one write.
+ * Each write appends the changed entries as one block to the file and forces it to disk.
+ * A failed write is retried after the debounce delay.
+ * An incomplete last line (from an interrupted write) is cut off when loading, so later writes start on a new line.
+ * If the file grows much bigger than the number of distinct keys, it is compacted into a temporary file
+ * that atomically replaces the old one.
+ * <p>
+ * After {@link #close()}, changes are written immediately.
+ * <p>
+ * Entries are stored as <code>key=value</code> lines, with <code>\</code>, <code>=</code> (in keys) and
+ * line breaks escaped with a backslash.
+ */
+public class FileInstanceableStore implements IInstanceableStore, Closeable
+{
+    private static final Logger log = LogManager.getLogger(FileInstanceableStore.class.getName());
+    private static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+    private static final int COMPACTION_FACTOR = 4;
+    private static final int MIN_LINES_FOR_COMPACTION = 256;
+
+    private final Path file;
+    private final long debounceMillis;
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+    private final Map<String, String> pending = new LinkedHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final Object writeLock = new Object();
+    private boolean flushScheduled = false;
+    private boolean closed = false;
+    private int numLines = 0;
+
+
+    /**
+     * @param file the file to load from and to write to
+     * @throws IOException if the existing file could not be read
+     */
+    public FileInstanceableStore(final Path file) throws IOException
+    {
+        this(file, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+
+    /**
+     * @param file the file to load from and to write to
+     * @param debounceMillis the delay between the first pending change and the write
+     * @throws IOException if the existing file could not be read
+     */
+    public FileInstanceableStore(final Path file, final long debounceMillis) throws IOException
+    {
+        this.file = file;
+        this.debounceMillis = debounceMillis;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "FileInstanceableStore");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scheduler = executor;
+        load();
+    }
+
+
+    private void load() throws IOException
+    {
+        if (!Files.exists(file))
+        {
+            return;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] != '\n')
+        {
+            end--;
+        }
+        if (end < bytes.length)
+        {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+            {
+                channel.truncate(end);
+                channel.force(false);
+            }
+        }
+        String content = new String(bytes, 0, end, StandardCharsets.UTF_8);
+        try (BufferedReader reader = new BufferedReader(new StringReader(content)))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                numLines++;
+                int separator = findSeparator(line);
+                if (separator >= 0)
+                {
+                    values.put(unescape(line.substring(0, separator)), unescape(line.substring(separator + 1)));
+                }
+            }
+        }
+    }
+
+
+    @Override
+    public String get(final String key, final String defaultValue)
+    {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+
+    @Override
+    public void put(final String key, final String value)
+    {
+        Objects.requireNonNull(value);
+        synchronized (pending)
+        {
+            if (value.equals(values.put(key, value)))
+            {
+                return;
+            }
+            pending.put(key, value);
+            if (scheduleFlush())
+            {
+                return;
+            }
+        }
+        flushQuietly();
+    }
+
+
+    /**
+     * Schedule a write of the pending changes after the debounce delay, if none is scheduled yet.
+     * The caller must hold the lock of {@link #pending}.
+     *
+     * @return false, if the store is closed and the caller has to write the changes
+     */
+    private boolean scheduleFlush()
+    {
+        if (flushScheduled)
+        {
+            return true;
+        }
+        if (closed)
+        {
+            return false;
+        }
+        try
+        {
+            scheduler.schedule(this::flushQuietly, debounceMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException err)
+        {
+            return false;
+        }
+        flushScheduled = true;
+        return true;
+    }
+
+
+    /**
+     * Write all pending changes now
+     *
+     * @throws IOException if the file could not be written
+     */
+    public void flush() throws IOException
+    {
+        synchronized (writeLock)
+        {
+            Map<String, String> changes;
+            synchronized (pending)
+            {
+                flushScheduled = false;
+                if (pending.isEmpty())
+                {
+                    return;
+                }
+                changes = new LinkedHashMap<>(pending);
+                pending.clear();
+            }
+            try
+            {
+                if (numLines + changes.size() > Math.max(MIN_LINES_FOR_COMPACTION,
+                        COMPACTION_FACTOR * values.size()))
+                {
+                    compact();
+                } else
+                {
+                    append(changes);
+                }
+            } catch (IOException err)
+            {
+                restorePending(changes);
+                throw err;
+            }
+        }
+    }
+
+
+    /**
+     * Queue changes that could not be written again, unless a newer value is already pending
+     */
+    private void restorePending(final Map<String, String> changes)
+    {
+        synchronized (pending)
+        {
+            Map<String, String> newer = new LinkedHashMap<>(pending);
+            pending.clear();
+            pending.putAll(changes);
+            pending.putAll(newer);
+        }
+    }
+
+
+    private void flushQuietly()
+    {
+        try
+        {
+            flush();
+        } catch (IOException err)
+        {
+            log.error("Could not write {}", file, err);
+            synchronized (pending)
+            {
+                if (!pending.isEmpty())
+                {
+                    scheduleFlush();
+                }
+            }
+        }
+    }
+
+
+    private void append(final Map<String, String> changes) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND))
+        {
+            long size = channel.size();
+            try
+            {
+                write(channel, changes);
+            } catch (IOException err)
+            {
+                truncateQuietly(size);
+                throw err;
+            }
+        }
+        numLines += changes.size();
+    }
+
+
+    /**
+     * Remove a partially written block, so that the next block does not continue its last line
+     */
+    private void truncateQuietly(final long size)
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+        {
+            channel.truncate(size);
+        } catch (IOException err)
+        {
+            log.warn("Could not remove a partially written block from {}", file, err);
+        }
+    }
+
+
+    private void compact() throws IOException
+    {
+        Map<String, String> snapshot = new LinkedHashMap<>(values);
+        Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            write(channel, snapshot);
+        }
+        Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        numLines = snapshot.size();
+    }
+
+
+    private static void write(final FileChannel channel, final Map<String, String> entries) throws IOException
+    {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> entry : entries.entrySet())
+        {
+            sb.append(escape(entry.getKey(), true)).append('=').append(escape(entry.getValue(), false)).append('\n');
+        }
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(sb.toString());
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+
+    /**
+     * Stop the debounce timer, wait for a running write and write all pending changes.
+     * Later changes are written immediately.
+     *
+     * @throws IOException if the file could not be written or the thread was interrupted while waiting
+     */
+    @Override
+    public void close() throws IOException
+    {
+        synchronized (pending)
+        {
+            closed = true;
+        }
+        scheduler.shutdown();
+        try
+        {
+            while (!scheduler.awaitTermination(1, TimeUnit.MINUTES))
+            {
+                log.warn("Still waiting for a write to {}", file);
+            }
+        } catch (InterruptedException err)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a write to " + file);
+        }
+        flush();
+    }
+
+
+    private static String escape(final String s, final boolean isKey)
+    {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++)
+        {
+            char c = s.charAt(i);
+            if (c == '\\' || (isKey && c == '='))
+            {
+                sb.append('\\').append(c);
+            } else if (c == '\n')
+            {
+                sb.append("\\n");
+            } else if (c == '\r')
+            {
+                sb.append("\\r");
+            } else
+            {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+
+    private static String unescape(final String s)
+    {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++)
+        {
+            char c = s.charAt(i);
+            if (c == '\\' && i + 1 < s.length())
+            {
+                char next = s.charAt(++i);
+                if (next == 'n')
+                {
+                    sb.append('\n');
+                } else if (next == 'r')
+                {
+                    sb.append('\r');
+                } else
+                {
+                    sb.append(next);
+                }
+            } else
+            {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+
+    private static int findSeparator(final String line)
+    {
+        for (int i = 0; i < line.length(); i++)
+        {
+            char c = line.charAt(i);
+            if (c == '\\')
+            {
+                i++;
+            } else if (c == '=')
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
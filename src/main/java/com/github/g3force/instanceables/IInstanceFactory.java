@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+/**
+ * A compiled creation path for the constructor of an {@link InstanceableClass}.
+ * This is implemented by the factories generated for {@link InstanceableConstructor}s.
+ *
+ * @param <T> the type of the created instances
+ */
+public interface IInstanceFactory<T>
+{
+    /**
+     * Create a new instance
+     *
+     * @param args the already parsed constructor arguments
+     * @return the new instance
+     * @throws Throwable anything thrown by the constructor
+     */
+    T create(Object[] args) throws Throwable;
+
+
+    /**
+     * @return the path that is used to call the constructor
+     */
+    InstanceableClass.CreationPath getCreationPath();
+}
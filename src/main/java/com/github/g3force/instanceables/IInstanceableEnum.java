@@ -26,13 +26,19 @@ public interface IInstanceableEnum
 
 
     /**
-     * Parse the given enum name to an enum instance of this enum type ({@link Enum#valueOf(Class, String)})
+     * Parse the given enum name to an enum instance of this enum type.
+     * By default, the enum is looked up in the {@link InstanceableRegistry#getDefault() default registry}.
      *
      * @param name the name of the enum value
-     * @return the respective enum instance
+     * @return the respective enum instance or null, if there is none
      */
     default IInstanceableEnum parse(String name)
     {
+        Class<?> type = this instanceof Enum ? ((Enum<?>) this).getDeclaringClass() : getClass();
+        if (type.isEnum())
+        {
+            return InstanceableRegistry.getDefault().find(type, name);
+        }
         return null;
     }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+/**
+ * Listener for timings and outcomes of the phases of an instance creation.
+ * Register it globally with {@link InstanceableClass#setDefaultMetrics(IInstanceableMetrics)}
+ * or per class with {@link InstanceableClass#metrics(IInstanceableMetrics)}.
+ * The methods are called concurrently from all threads that create instances.
+ */
+public interface IInstanceableMetrics
+{
+    /**
+     * A listener that does nothing. No timings are taken while it is registered.
+     */
+    IInstanceableMetrics NO_OP = new IInstanceableMetrics()
+    {
+    };
+
+
+    /**
+     * @param impl the implementation class of the instance
+     * @param param the parsed constructor parameter or setter
+     * @param nanos the duration of parsing
+     * @param success true, if the value could be parsed
+     */
+    default void onParse(Class<?> impl, IInstanceableParameter param, long nanos, boolean success)
+    {
+    }
+
+
+    /**
+     * @param impl the implementation class of the instance
+     * @param nanos the duration of the constructor call
+     * @param success true, if the instance was created
+     */
+    default void onConstruct(Class<?> impl, long nanos, boolean success)
+    {
+    }
+
+
+    /**
+     * @param impl the implementation class of the instance
+     * @param setter the applied setter
+     * @param nanos the duration of the setter call, without parsing
+     * @param success true, if the setter did not throw
+     */
+    default void onSetter(Class<?> impl, IInstanceableParameter setter, long nanos, boolean success)
+    {
+    }
+}
@@ -17,6 +17,18 @@ public interface IInstanceableParameter
      */
     Object parseString(String value);
 
+    /**
+     * Parse given String to value, with a converter for parameters that have none set
+     *
+     * @param value the value to be parsed
+     * @param converter the converter of the {@link InstanceableClass}, or null to use the default
+     * @return the instance of the parsed value
+     */
+    default Object parseString(String value, IValueConverter converter)
+    {
+        return parseString(value);
+    }
+
     /**
      * @return the implementation type
      */
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+/**
+ * Persistence backend for the parameter values and selections of an {@link InstanceablePanel}.
+ */
+public interface IInstanceableStore
+{
+    /**
+     * @param key the key
+     * @param defaultValue the value to return, if there is no value for the key
+     * @return the stored value or the default value
+     */
+    String get(String key, String defaultValue);
+
+
+    /**
+     * @param key the key
+     * @param value the new value
+     */
+    void put(String key, String value);
+}
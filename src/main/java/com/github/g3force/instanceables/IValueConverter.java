@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Converts the string representation of a parameter value to the value.
+ * Set it per class with {@link InstanceableClass#converter(IValueConverter)}
+ * or per parameter with {@link InstanceableParameter#converter(IValueConverter)}.
+ * Implementations are called concurrently and must be thread-safe.
+ */
+public interface IValueConverter
+{
+    /**
+     * Parse a value
+     *
+     * @param impl the type of the value
+     * @param genericsImpls the types of the generic parameters of the type, may be empty
+     * @param value the string representation of the value
+     * @return the parsed value
+     */
+    Object parse(Class<?> impl, List<Class<?>> genericsImpls, String value);
+
+
+    /**
+     * Parse a non-null value of type <code>int</code>. Override it to parse without boxing.
+     *
+     * @param value the string representation of the value
+     * @return the parsed value
+     */
+    default int parseInt(final String value)
+    {
+        return (Integer) parse(Integer.TYPE, Collections.emptyList(), value);
+    }
+
+
+    /**
+     * Parse a non-null value of type <code>long</code>. Override it to parse without boxing.
+     *
+     * @param value the string representation of the value
+     * @return the parsed value
+     */
+    default long parseLong(final String value)
+    {
+        return (Long) parse(Long.TYPE, Collections.emptyList(), value);
+    }
+
+
+    /**
+     * Parse a non-null value of type <code>double</code>. Override it to parse without boxing.
+     *
+     * @param value the string representation of the value
+     * @return the parsed value
+     */
+    default double parseDouble(final String value)
+    {
+        return (Double) parse(Double.TYPE, Collections.emptyList(), value);
+    }
+
+
+    /**
+     * Parse a non-null value of type <code>boolean</code>.
+     *
+     * @param value the string representation of the value
+     * @return the parsed value
+     */
+    default boolean parseBoolean(final String value)
+    {
+        return (Boolean) parse(Boolean.TYPE, Collections.emptyList(), value);
+    }
+
+
+    /**
+     * @return the converter that is used if none is set, it delegates to the String2ValueConverter
+     */
+    static IValueConverter getDefault()
+    {
+        return DefaultValueConverter.INSTANCE;
+    }
+}
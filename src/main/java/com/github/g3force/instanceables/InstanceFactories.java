@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+
+
+/**
+ * Factory methods for {@link IInstanceFactory}s.
+ */
+final class InstanceFactories
+{
+    /** suffix of the classes generated for {@link InstanceableConstructor}s */
+    static final String GENERATED_SUFFIX = "_InstanceFactories";
+    /** the static method of the generated classes that returns the factory for given parameter types */
+    static final String GENERATED_METHOD = "forParameters";
+    private static final int MAX_LAMBDA_ARITY = 4;
+    private static final Class<?>[] SAM_TYPES = {
+            TypedConstructors.ICtor0.class, TypedConstructors.ICtor1.class, TypedConstructors.ICtor2.class,
+            TypedConstructors.ICtor3.class, TypedConstructors.ICtor4.class
+    };
+
+
+    private InstanceFactories()
+    {
+    }
+
+
+    /**
+     * Look up the factory that was generated at compile time for a constructor annotated with
+     * {@link InstanceableConstructor}.
+     *
+     * @param impl the class to create
+     * @param paramTypes the parameter types of the constructor
+     * @param <T> the instance type
+     * @return the generated factory or null, if there is none
+     */
+    @SuppressWarnings("unchecked")
+    static <T> IInstanceFactory<T> generated(final Class<T> impl, final Class<?>[] paramTypes)
+    {
+        String name = impl.getName();
+        String packagePrefix = name.substring(0, name.lastIndexOf('.') + 1);
+        String flatName = name.substring(packagePrefix.length()).replace('$', '_');
+        try
+        {
+            Class<?> generatedClass = Class.forName(packagePrefix + flatName + GENERATED_SUFFIX, true,
+                    impl.getClassLoader());
+            Method forParameters = generatedClass.getMethod(GENERATED_METHOD, Class[].class);
+            return (IInstanceFactory<T>) forParameters.invoke(null, (Object) paramTypes);
+        } catch (ClassNotFoundException err)
+        {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException err)
+        {
+            throw new InstanceableClass.NotCreateableException("Invalid generated factory for " + impl, err);
+        }
+    }
+
+
+    /**
+     * Create a factory that calls the constructor through a spreading {@link MethodHandle}.
+     *
+     * @param constructor the public constructor, made accessible if its class is not
+     * @param <T> the instance type
+     * @return a new factory
+     * @throws IllegalAccessException if the constructor is not accessible
+     */
+    static <T> IInstanceFactory<T> methodHandle(final Constructor<T> constructor) throws IllegalAccessException
+    {
+        int arity = constructor.getParameterCount();
+        MethodHandle handle = unreflect(constructor)
+                .asType(MethodType.genericMethodType(arity))
+                .asSpreader(Object[].class, arity);
+        return new MethodHandleFactory<>(handle);
+    }
+
+
+    private static MethodHandle unreflect(final Constructor<?> constructor) throws IllegalAccessException
+    {
+        try
+        {
+            return MethodHandles.lookup().unreflectConstructor(constructor);
+        } catch (IllegalAccessException err)
+        {
+            // the constructor is public, but its class is not accessible, like with reflection
+            try
+            {
+                constructor.setAccessible(true);
+            } catch (RuntimeException e)
+            {
+                err.addSuppressed(e);
+                throw err;
+            }
+            return MethodHandles.lookup().unreflectConstructor(constructor);
+        }
+    }
+
+
+    /**
+     * Create a factory that passes the arguments from an {@link ArgumentVector} to the constructor.
+     * Each argument is read from its typed slot by a method handle, so primitive arguments are not boxed.
+     *
+     * @param constructor the public constructor, made accessible if its class is not
+     * @param layout a vector with the layout of the constructor parameters
+     * @param <T> the instance type
+     * @return a new factory
+     * @throws IllegalAccessException if the constructor is not accessible
+     */
+    static <T> VectorFactory<T> vector(final Constructor<T> constructor, final ArgumentVector layout)
+            throws IllegalAccessException
+    {
+        MethodHandle ctorHandle = unreflect(constructor);
+        Class<?>[] types = layout.getTypes();
+        MethodHandle[] getters = new MethodHandle[types.length];
+        for (int i = 0; i < types.length; i++)
+        {
+            getters[i] = MethodHandles.insertArguments(vectorGetter(layout.getKind(i)), 1, layout.getSlot(i))
+                    .asType(MethodType.methodType(types[i], ArgumentVector.class));
+        }
+        MethodHandle handle = MethodHandles.permuteArguments(
+                MethodHandles.filterArguments(ctorHandle, 0, getters),
+                MethodType.methodType(constructor.getDeclaringClass(), ArgumentVector.class),
+                new int[types.length]);
+        return new VectorFactory<>(types, handle.asType(MethodType.methodType(Object.class, ArgumentVector.class)));
+    }
+
+
+    private static MethodHandle vectorGetter(final ArgumentVector.Kind kind)
+    {
+        try
+        {
+            switch (kind)
+            {
+                case INT:
+                    return MethodHandles.lookup().findVirtual(ArgumentVector.class, "getInt",
+                            MethodType.methodType(int.class, int.class));
+                case LONG:
+                    return MethodHandles.lookup().findVirtual(ArgumentVector.class, "getLong",
+                            MethodType.methodType(long.class, int.class));
+                case DOUBLE:
+                    return MethodHandles.lookup().findVirtual(ArgumentVector.class, "getDouble",
+                            MethodType.methodType(double.class, int.class));
+                case BOOLEAN:
+                    return MethodHandles.lookup().findVirtual(ArgumentVector.class, "getBoolean",
+                            MethodType.methodType(boolean.class, int.class));
+                default:
+                    return MethodHandles.lookup().findVirtual(ArgumentVector.class, "getObject",
+                            MethodType.methodType(Object.class, int.class));
+            }
+        } catch (NoSuchMethodException | IllegalAccessException err)
+        {
+            throw new IllegalStateException("Missing getter for " + kind, err);
+        }
+    }
+
+
+    /**
+     * Create a factory that calls the constructor through a class spun by the {@link LambdaMetafactory}.
+     * This only works for public constructors of public classes whose types are visible from this library
+     * and for up to {@value #MAX_LAMBDA_ARITY} parameters.
+     * The factory still spreads an <code>Object[]</code>, so its call of the constructor is shared by all
+     * constructors with the same number of parameters, see {@link #typed(Constructor, Class)}.
+     *
+     * @param constructor the public constructor
+     * @param <T> the instance type
+     * @return a new factory or null, if the constructor is not supported
+     */
+    static <T> IInstanceFactory<T> lambda(final Constructor<T> constructor)
+    {
+        if (!isLambdaCompatible(constructor))
+        {
+            return null;
+        }
+        try
+        {
+            return new LambdaFactory<>(constructor.getParameterCount(), spin(constructor));
+        } catch (Throwable err)
+        {
+            return null;
+        }
+    }
+
+
+    /**
+     * Create a function of one of the {@link TypedConstructors} interfaces that calls the constructor through a
+     * class spun by the {@link LambdaMetafactory} for this constructor only, so its callers get a call site of
+     * their own.
+     *
+     * @param constructor the public constructor
+     * @param constructorType the interface that matches the number of parameters
+     * @param <F> the function type
+     * @return a new function
+     * @throws InstanceableClass.NotCreateableException if the constructor is not supported
+     *             or does not match the interface
+     */
+    @SuppressWarnings("unchecked")
+    static <F> F typed(final Constructor<?> constructor, final Class<? super F> constructorType)
+    {
+        int arity = constructor.getParameterCount();
+        if (arity >= SAM_TYPES.length || SAM_TYPES[arity] != constructorType)
+        {
+            throw new InstanceableClass.NotCreateableException(constructorType.getName()
+                    + " does not match a constructor with " + arity + " parameters");
+        }
+        if (!isLambdaCompatible(constructor))
+        {
+            throw new InstanceableClass.NotCreateableException(
+                    "Constructor can not be called through the LambdaMetafactory: " + constructor);
+        }
+        try
+        {
+            return (F) spin(constructor);
+        } catch (Error err)
+        {
+            throw err;
+        } catch (Throwable err)
+        {
+            throw new InstanceableClass.NotCreateableException("Could not spin a factory for " + constructor, err);
+        }
+    }
+
+
+    private static boolean isLambdaCompatible(final Constructor<?> constructor)
+    {
+        if (constructor.getParameterCount() > MAX_LAMBDA_ARITY
+                || !Modifier.isPublic(constructor.getModifiers())
+                || !isVisible(constructor.getDeclaringClass()))
+        {
+            return false;
+        }
+        for (Class<?> type : constructor.getParameterTypes())
+        {
+            if (!type.isPrimitive() && !isVisible(type))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private static boolean isVisible(final Class<?> type)
+    {
+        Class<?> component = type;
+        while (component.isArray())
+        {
+            component = component.getComponentType();
+        }
+        if (component.isPrimitive())
+        {
+            return true;
+        }
+        if (!Modifier.isPublic(component.getModifiers()))
+        {
+            return false;
+        }
+        try
+        {
+            return Class.forName(component.getName(), false, InstanceFactories.class.getClassLoader()) == component;
+        } catch (ClassNotFoundException | LinkageError err)
+        {
+            return false;
+        }
+    }
+
+
+    private static Object spin(final Constructor<?> constructor) throws Throwable
+    {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle ctorHandle = lookup.unreflectConstructor(constructor);
+        int arity = constructor.getParameterCount();
+        Class<?> samType = SAM_TYPES[arity];
+        CallSite site = LambdaMetafactory.metafactory(
+                lookup,
+                "create",
+                MethodType.methodType(samType),
+                MethodType.genericMethodType(arity),
+                ctorHandle,
+                ctorHandle.type().wrap());
+        return site.getTarget().invoke();
+    }
+
+
+    /**
+     * Creates instances from an {@link ArgumentVector}
+     *
+     * @param <T> the instance type
+     */
+    static class VectorFactory<T>
+    {
+        private final Class<?>[] types;
+        private final MethodHandle handle;
+
+
+        VectorFactory(final Class<?>[] types, final MethodHandle handle)
+        {
+            this.types = types;
+            this.handle = handle;
+        }
+
+
+        boolean accepts(final ArgumentVector args)
+        {
+            return args.getTypes() == types || Arrays.equals(args.getTypes(), types);
+        }
+
+
+        @SuppressWarnings("unchecked")
+        T create(final ArgumentVector args) throws Throwable
+        {
+            return (T) (Object) handle.invokeExact(args);
+        }
+    }
+
+    private static class MethodHandleFactory<T> implements IInstanceFactory<T>
+    {
+        private final MethodHandle handle;
+
+
+        MethodHandleFactory(final MethodHandle handle)
+        {
+            this.handle = handle;
+        }
+
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T create(final Object[] args) throws Throwable
+        {
+            return (T) (Object) handle.invokeExact(args);
+        }
+
+
+        @Override
+        public InstanceableClass.CreationPath getCreationPath()
+        {
+            return InstanceableClass.CreationPath.METHOD_HANDLE;
+        }
+    }
+
+    private static class LambdaFactory<T> implements IInstanceFactory<T>
+    {
+        private final int arity;
+        private final Object function;
+
+
+        LambdaFactory(final int arity, final Object function)
+        {
+            this.arity = arity;
+            this.function = function;
+        }
+
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T create(final Object[] args)
+        {
+            if (args.length != arity)
+            {
+                throw new IllegalArgumentException("Expected " + arity + " arguments, got " + args.length);
+            }
+            switch (arity)
+            {
+                case 0:
+                    return ((TypedConstructors.ICtor0<T>) function).create();
+                case 1:
+                    return ((TypedConstructors.ICtor1<T>) function).create(args[0]);
+                case 2:
+                    return ((TypedConstructors.ICtor2<T>) function).create(args[0], args[1]);
+                case 3:
+                    return ((TypedConstructors.ICtor3<T>) function).create(args[0], args[1], args[2]);
+                default:
+                    return ((TypedConstructors.ICtor4<T>) function).create(args[0], args[1], args[2], args[3]);
+            }
+        }
+
+
+        @Override
+        public InstanceableClass.CreationPath getCreationPath()
+        {
+            return InstanceableClass.CreationPath.LAMBDA_FACTORY;
+        }
+    }
+}
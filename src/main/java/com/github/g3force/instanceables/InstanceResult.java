@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import com.github.g3force.instanceables.InstanceableClass.NotCreateableException;
+
+
+/**
+ * The result of creating one instance in a batch: either the instance or the reason why it could not be created.
+ *
+ * @param <T> the type of the instance
+ */
+public final class InstanceResult<T>
+{
+    private final int index;
+    private final T instance;
+    private final NotCreateableException error;
+
+
+    private InstanceResult(final int index, final T instance, final NotCreateableException error)
+    {
+        this.index = index;
+        this.instance = instance;
+        this.error = error;
+    }
+
+
+    static <T> InstanceResult<T> success(final int index, final T instance)
+    {
+        return new InstanceResult<>(index, instance, null);
+    }
+
+
+    static <T> InstanceResult<T> failure(final int index, final NotCreateableException error)
+    {
+        return new InstanceResult<>(index, null, error);
+    }
+
+
+    /**
+     * @return the index of the input row
+     */
+    public int getIndex()
+    {
+        return index;
+    }
+
+
+    /**
+     * @return true, if the instance was created
+     */
+    public boolean isSuccess()
+    {
+        return error == null;
+    }
+
+
+    /**
+     * @return the instance or null, if it could not be created
+     */
+    public T getInstance()
+    {
+        return instance;
+    }
+
+
+    /**
+     * @return the reason why the instance could not be created or null, if it was created
+     */
+    public NotCreateableException getError()
+    {
+        return error;
+    }
+
+
+    /**
+     * @return the instance
+     * @throws NotCreateableException if the instance could not be created
+     */
+    public T get()
+    {
+        if (error != null)
+        {
+            throw error;
+        }
+        return instance;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return "InstanceResult{" +
+                "index=" + index +
+                (error == null ? ", instance=" + instance : ", error=" + error) +
+                '}';
+    }
+}
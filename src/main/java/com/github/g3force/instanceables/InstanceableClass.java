@@ -11,8 +11,19 @@ package com.github.g3force.instanceables;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 
 /**
@@ -20,9 +31,25 @@ import java.util.function.BiConsumer;
  */
 public class InstanceableClass<T>
 {
+    private static volatile IInstanceableMetrics defaultMetrics = IInstanceableMetrics.NO_OP;
+
     private final Class<T> impl;
     private final List<InstanceableParameter> ctorParams = new ArrayList<>();
     private final List<InstanceableSetter<?, T>> setterParams = new ArrayList<>();
+    /** immutable copy of the parameters, created lazily and reset when the parameters change */
+    private volatile Params<T> params = null;
+    private volatile boolean frozen = false;
+    /** compiled constructor, resolved lazily and reset when the constructor signature changes */
+    private volatile IInstanceFactory<T> factory = null;
+    /** constructor that takes an {@link ArgumentVector}, resolved lazily like the factory */
+    private volatile InstanceFactories.VectorFactory<T> vectorFactory = null;
+    private volatile boolean lambdaFactory = false;
+    /** parsed default values, created lazily and reset when the parameters change */
+    private volatile DefaultValues defaultValues = null;
+    private volatile UnaryOperator<Object> defaultValueCopier = null;
+    private volatile IValueConverter converter = null;
+    private volatile ForkJoinPool forkJoinPool = null;
+    private volatile IInstanceableMetrics metrics = null;
 
 
     public InstanceableClass(final Class<T> impl, final InstanceableParameter... ctorParams)
@@ -40,14 +67,22 @@ public class InstanceableClass<T>
 
     public InstanceableClass<T> setterParam(final InstanceableSetter<?, T> setter)
     {
+        checkNotFrozen();
         setterParams.add(setter);
+        params = null;
+        defaultValues = null;
         return this;
     }
 
 
     public InstanceableClass<T> ctorParam(final InstanceableParameter param)
     {
+        checkNotFrozen();
         ctorParams.add(param);
+        params = null;
+        factory = null;
+        vectorFactory = null;
+        defaultValues = null;
         return this;
     }
 
@@ -60,7 +95,10 @@ public class InstanceableClass<T>
         final Class<?>... genericsImpls
     )
     {
+        checkNotFrozen();
         setterParams.add(new InstanceableSetter<>(impl, description, defaultValue, setter, genericsImpls));
+        params = null;
+        defaultValues = null;
         return this;
     }
 
@@ -72,11 +110,257 @@ public class InstanceableClass<T>
         final Class<?>... genericsImpls
     )
     {
+        checkNotFrozen();
         ctorParams.add(new InstanceableParameter(impl, description, defaultValue, genericsImpls));
+        params = null;
+        factory = null;
+        vectorFactory = null;
+        defaultValues = null;
+        return this;
+    }
+
+
+    /**
+     * Call the constructor through a factory generated by the {@link java.lang.invoke.LambdaMetafactory}
+     * instead of a method handle. The arguments are still spread from an array at a call site that is shared
+     * by all classes with the same number of parameters, use {@link #typedConstructor(Class)} to get a call site
+     * per class that the JIT can inline like a plain <code>new</code> expression.
+     * Constructors of non-public classes and constructors with many parameters fall back to the method handle.
+     *
+     * @param enabled true to use a generated factory, if possible
+     * @return this
+     * @see #getCreationPath()
+     */
+    public InstanceableClass<T> lambdaFactory(final boolean enabled)
+    {
+        checkNotFrozen();
+        lambdaFactory = enabled;
+        factory = null;
+        return this;
+    }
+
+
+    /**
+     * The default values are parsed once and shared by all instances created with {@link #newDefaultInstance()}.
+     * Set a copier, if some of the default values are mutable, so that each instance gets its own copy.
+     *
+     * @param copier a function that is applied to each parsed default value before it is used, or null
+     * @return this
+     */
+    public InstanceableClass<T> defaultValueCopier(final UnaryOperator<Object> copier)
+    {
+        checkNotFrozen();
+        defaultValueCopier = copier;
+        return this;
+    }
+
+
+    /**
+     * Parse the values of all parameters that have no converter of their own with the given converter.
+     *
+     * @param converter the converter, or null to use {@link IValueConverter#getDefault()}
+     * @return this
+     */
+    public InstanceableClass<T> converter(final IValueConverter converter)
+    {
+        checkNotFrozen();
+        this.converter = converter;
+        defaultValues = null;
+        return this;
+    }
+
+
+    /**
+     * @param pool the pool that is used by {@link #newInstances(List)}, null for the common pool
+     * @return this
+     */
+    public InstanceableClass<T> forkJoinPool(final ForkJoinPool pool)
+    {
+        forkJoinPool = pool;
         return this;
     }
 
 
+    /**
+     * @param metrics the metrics of this class, null for the default metrics
+     * @return this
+     */
+    public InstanceableClass<T> metrics(final IInstanceableMetrics metrics)
+    {
+        this.metrics = metrics;
+        return this;
+    }
+
+
+    /**
+     * @param metrics the metrics of all classes without own metrics, {@link IInstanceableMetrics#NO_OP} to disable
+     */
+    public static void setDefaultMetrics(final IInstanceableMetrics metrics)
+    {
+        defaultMetrics = metrics == null ? IInstanceableMetrics.NO_OP : metrics;
+    }
+
+
+    private IInstanceableMetrics getMetrics()
+    {
+        IInstanceableMetrics m = metrics;
+        return m == null ? defaultMetrics : m;
+    }
+
+
+    /**
+     * Create a pool that recycles released instances instead of creating new ones.
+     *
+     * @param maximumSize the maximum number of pooled instances
+     * @param reset a callback that resets a pooled instance before it is reused, or null
+     * @return a new pool that creates and reinitializes instances with the default values
+     */
+    public InstanceablePool<T> pooled(final int maximumSize, final Consumer<? super T> reset)
+    {
+        return new InstanceablePool<>(this, maximumSize, reset);
+    }
+
+
+    /**
+     * Create instances by copying templates instead of calling the constructor for each instance.
+     *
+     * @param copier a function that creates an independent copy of a template,
+     *            or null to use the public <code>clone()</code> method of a {@link Cloneable} class
+     * @param maxTemplates the maximum number of cached templates
+     * @return a new prototype cache that creates the templates with this class
+     */
+    public InstanceablePrototypes<T> prototyped(final UnaryOperator<T> copier, final int maxTemplates)
+    {
+        return new InstanceablePrototypes<>(this, copier, maxTemplates);
+    }
+
+
+    /**
+     * Share one instance for equal parameter values. Only use this for immutable types.
+     *
+     * @param retention whether unused shared instances are collected as soon as possible or only on memory pressure
+     * @return a new interner that creates the shared instances with this class
+     */
+    public InstanceableInterner<T> interned(final InstanceableInterner.Retention retention)
+    {
+        return new InstanceableInterner<>(this, retention);
+    }
+
+
+    /**
+     * Change the setter values of existing instances in place, calling only the setters whose value changed.
+     *
+     * @param maxCachedValues the maximum number of cached parsed values per setter, 0 to parse every change
+     * @return a new reconfigurator for instances of this class
+     */
+    public InstanceableReconfigurator<T> reconfigurator(final int maxCachedValues)
+    {
+        return new InstanceableReconfigurator<>(this, maxCachedValues);
+    }
+
+
+    /**
+     * Create a codec that stores parameter sets of this class in a binary form.
+     *
+     * @return a new codec for the current parameters
+     */
+    public InstanceableSnapshotCodec<T> snapshotCodec()
+    {
+        return new InstanceableSnapshotCodec<>(this);
+    }
+
+
+    /**
+     * Get the constructor as a function that is spun by the {@link java.lang.invoke.LambdaMetafactory}
+     * for this class only. Unlike {@link #newInstance(Object...)}, whose call of the constructor is shared by
+     * all classes, a call of the function at a call site that only sees this class can be inlined by the JIT
+     * like a plain <code>new</code> expression. The arguments are passed as they are and no metrics are recorded.
+     * <p>
+     * Each call spins a new class, so get the function once and keep it.
+     *
+     * @param constructorType the interface for the number of constructor parameters,
+     *            e.g. {@link TypedConstructors.ICtor2} for two parameters
+     * @param <F> the function type
+     * @return a new function that calls the constructor
+     * @throws NotCreateableException if the interface does not match the number of parameters,
+     *             or the constructor can not be called through the LambdaMetafactory
+     *             (see {@link #lambdaFactory(boolean)})
+     */
+    public <F> F typedConstructor(final Class<? super F> constructorType)
+    {
+        try
+        {
+            return InstanceFactories.typed(impl.getConstructor(getParams().ctorTypes), constructorType);
+        } catch (NoSuchMethodException err)
+        {
+            throw new NotCreateableException("Wrong constructor types.", err);
+        }
+    }
+
+
+    /**
+     * @return the path that is used to call the constructor
+     * @throws NotCreateableException if no matching public constructor exists
+     */
+    public CreationPath getCreationPath()
+    {
+        return getFactory().getCreationPath();
+    }
+
+
+    /**
+     * Resolve the constructor for the current parameters eagerly, so that a wrong signature is reported
+     * when the class is defined and not on the first instance creation.
+     *
+     * @return this
+     * @throws NotCreateableException if no matching public constructor exists
+     */
+    public InstanceableClass<T> compile()
+    {
+        getFactory();
+        return this;
+    }
+
+
+    /**
+     * Compile the class and make it immutable. Afterwards, the parameters and the creation settings can not
+     * be changed anymore and all instance creation methods only read immutable state,
+     * so a frozen class can be shared by any number of threads without synchronization.
+     * Metrics and the fork join pool can still be set.
+     *
+     * @return this
+     * @throws NotCreateableException if no matching public constructor exists
+     */
+    public synchronized InstanceableClass<T> freeze()
+    {
+        if (!frozen)
+        {
+            getParams();
+            getFactory();
+            frozen = true;
+        }
+        return this;
+    }
+
+
+    /**
+     * @return true, if {@link #freeze()} was called
+     */
+    public boolean isFrozen()
+    {
+        return frozen;
+    }
+
+
+    private void checkNotFrozen()
+    {
+        if (frozen)
+        {
+            throw new IllegalStateException(impl.getName() + " is frozen");
+        }
+    }
+
+
     /**
      * Create a new instance with the specified arguments
      *
@@ -85,21 +369,129 @@ public class InstanceableClass<T>
      */
     public T newInstance(final Object... args)
     {
+        IInstanceableMetrics m = getMetrics();
+        if (m == IInstanceableMetrics.NO_OP)
+        {
+            return construct(args);
+        }
+        long start = System.nanoTime();
+        boolean success = false;
         try
         {
-            Constructor<?> con = getConstructor();
-            //noinspection unchecked
-            return (T) con.newInstance(args);
-        } catch (NoSuchMethodException err)
+            T instance = construct(args);
+            success = true;
+            return instance;
+        } finally
         {
-            throw new NotCreateableException("Wrong constructor types.", err);
-        } catch (final Exception err)
+            m.onConstruct(impl, System.nanoTime() - start, success);
+        }
+    }
+
+
+    private T construct(final Object[] args)
+    {
+        IInstanceFactory<T> con = getFactory();
+        try
+        {
+            return con.create(args);
+        } catch (final Error err)
+        {
+            throw err;
+        } catch (final Throwable err)
+        {
+            throw new NotCreateableException("Can not create instance", err);
+        }
+    }
+
+
+    /**
+     * Create a new instance with the arguments of a vector. Primitive arguments are passed without boxing.
+     *
+     * @param args the arguments, created by {@link #newArgumentVector()}
+     * @return a new instance
+     * @throws NotCreateableException if the instance could not be created
+     */
+    public T newInstance(final ArgumentVector args)
+    {
+        IInstanceableMetrics m = getMetrics();
+        if (m == IInstanceableMetrics.NO_OP)
+        {
+            return construct(args);
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try
+        {
+            T instance = construct(args);
+            success = true;
+            return instance;
+        } finally
+        {
+            m.onConstruct(impl, System.nanoTime() - start, success);
+        }
+    }
+
+
+    private T construct(final ArgumentVector args)
+    {
+        InstanceFactories.VectorFactory<T> con = getVectorFactory();
+        if (!con.accepts(args))
+        {
+            throw new NotCreateableException("Argument vector does not match the constructor: " + args);
+        }
+        try
+        {
+            return con.create(args);
+        } catch (final Error err)
+        {
+            throw err;
+        } catch (final Throwable err)
         {
             throw new NotCreateableException("Can not create instance", err);
         }
     }
 
 
+    /**
+     * Create a new instance with parsed values
+     *
+     * @param args the constructor arguments
+     * @param setterValues the parsed values of the setters
+     * @return a new instance
+     */
+    T newInstance(final ArgumentVector args, final Object[] setterValues)
+    {
+        T instance = newInstance(args);
+        InstanceableSetter<?, T>[] setters = getParams().setters;
+        IInstanceableMetrics m = getMetrics();
+        for (int i = 0; i < setterValues.length; i++)
+        {
+            applySetter(setters[i], instance, setterValues[i], m);
+        }
+        return instance;
+    }
+
+
+    /**
+     * Arguments whose default value can not be parsed or is null for a primitive type are left at zero or null.
+     *
+     * @return a new argument vector for {@link #newInstance(ArgumentVector)}, filled with the default values
+     */
+    public ArgumentVector newArgumentVector()
+    {
+        return getDefaultValues().getCtorVector().copy();
+    }
+
+
+    /**
+     * @return a new argument vector with all arguments at zero or null, without parsing any default value
+     */
+    ArgumentVector newBlankArgumentVector()
+    {
+        return getDefaultValues().blankVector.copy();
+    }
+
+
     /**
      * Create a new instance with the specified arguments
      *
@@ -109,80 +501,819 @@ public class InstanceableClass<T>
      */
     public T newInstance(final List<String> values)
     {
-        if (values.size() != ctorParams.size() + setterParams.size())
+        Params<T> p = getParams();
+        if (values.size() != p.all.length)
         {
             throw new NotCreateableException("Wrong number of parameters: " + values);
         }
 
+        IInstanceableMetrics m = getMetrics();
         int i = 0;
-        List<Object> params = new ArrayList<>(this.ctorParams.size());
-        for (InstanceableParameter param : this.ctorParams)
+        T instance;
+        if (getCreationPath() == CreationPath.METHOD_HANDLE)
+        {
+            ArgumentVector args = newBlankArgumentVector();
+            for (InstanceableParameter param : p.ctor)
+            {
+                parse(args, param, i, values.get(i), m);
+                i++;
+            }
+            instance = newInstance(args);
+        } else
+        {
+            Object[] args = new Object[p.ctor.length];
+            for (InstanceableParameter param : p.ctor)
+            {
+                args[i] = parse(param, i, values.get(i), m);
+                i++;
+            }
+            instance = newInstance(args);
+        }
+        for (InstanceableSetter<?, T> setter : p.setters)
+        {
+            applySetter(setter, instance, parse(setter, i, values.get(i), m), m);
+            i++;
+        }
+        return instance;
+    }
+
+
+    /**
+     * Create a supplier that creates the instance on its first use. Only the number of values is checked now.
+     *
+     * @param values the parameters to the constructor and to the setters
+     * @return a memoizing, thread-safe supplier of the instance
+     * @throws NotCreateableException if the number of values is wrong
+     */
+    public LazyInstance<T> lazyInstance(final List<String> values)
+    {
+        return lazyInstance(values, false);
+    }
+
+
+    /**
+     * Create a supplier that creates the instance on its first use.
+     *
+     * @param values the parameters to the constructor and to the setters
+     * @param validate true to parse all values now (see {@link #validate(List)}), false to only check their number
+     * @return a memoizing, thread-safe supplier of the instance
+     * @throws NotCreateableException if the number of values is wrong or, if validated, a value can not be parsed
+     */
+    public LazyInstance<T> lazyInstance(final List<String> values, final boolean validate)
+    {
+        if (values.size() != getParams().all.length)
+        {
+            throw new NotCreateableException("Wrong number of parameters: " + values);
+        }
+        if (validate)
+        {
+            List<ValidationError> errors = validate(values);
+            if (!errors.isEmpty())
+            {
+                NotCreateableException err = new NotCreateableException(errors.stream()
+                        .map(ValidationError::getMessage)
+                        .collect(Collectors.joining("; ")));
+                errors.stream()
+                        .map(ValidationError::getCause)
+                        .filter(Objects::nonNull)
+                        .forEach(err::addSuppressed);
+                throw err;
+            }
+        }
+        return new LazyInstance<>(this, values);
+    }
+
+
+    /**
+     * Create a new instance with values by the description of their parameter.
+     * Parameters without a value get their default value, which is only parsed once.
+     * The default values of the given parameters are not parsed.
+     * If several parameters have the same description, the value is used for the first one.
+     *
+     * @param values the values of the constructor parameters and the setters by their description
+     * @return a new instance
+     * @throws NotCreateableException if a description is unknown or the instance could not be created
+     */
+    public T newInstance(final Map<String, String> values)
+    {
+        Params<T> p = getParams();
+        Object[] parsed = new Object[p.all.length];
+        boolean[] given = new boolean[p.all.length];
+        IInstanceableMetrics m = getMetrics();
+        for (Map.Entry<String, String> entry : values.entrySet())
+        {
+            Integer index = p.indexByDescription.get(entry.getKey());
+            if (index == null)
+            {
+                throw new NotCreateableException("Unknown parameter '" + entry.getKey() + "' for " + impl.getName()
+                        + ", expected one of " + p.indexByDescription.keySet());
+            }
+            parsed[index] = parse(p.all[index], index, entry.getValue(), m);
+            given[index] = true;
+        }
+
+        DefaultValues defaults = getDefaultValues();
+        UnaryOperator<Object> copier = defaultValueCopier;
+        for (int i = 0; i < parsed.length; i++)
+        {
+            if (!given[i])
+            {
+                Object value = defaults.get(i);
+                parsed[i] = copier == null ? value : copier.apply(value);
+            }
+        }
+        Object[] args = Arrays.copyOf(parsed, p.ctor.length);
+        Object[] setterValues = Arrays.copyOfRange(parsed, p.ctor.length, parsed.length);
+
+        T instance = newInstance(args);
+        for (int i = 0; i < setterValues.length; i++)
+        {
+            applySetter(p.setters[i], instance, setterValues[i], m);
+        }
+        return instance;
+    }
+
+
+    /**
+     * Parse the values of the constructor parameters and the setters
+     *
+     * @param values the parameters to the constructor and to the setters
+     * @return the parsed values
+     * @throws NotCreateableException if a value could not be parsed
+     */
+    Object[] parseValues(final List<String> values)
+    {
+        IInstanceableParameter[] all = getParams().all;
+        if (values.size() != all.length)
+        {
+            throw new NotCreateableException("Wrong number of parameters: " + values);
+        }
+        IInstanceableMetrics m = getMetrics();
+        Object[] parsed = new Object[all.length];
+        for (int i = 0; i < parsed.length; i++)
         {
-            String value = values.get(i++);
-            Object o = param.parseString(value);
-            params.add(o);
+            parsed[i] = parse(all[i], i, values.get(i), m);
         }
+        return parsed;
+    }
+
 
-        T instance = newInstance(params.toArray());
-        for (InstanceableSetter<?, T> setter : setterParams)
+    /**
+     * Create a new instance with values from {@link #parseValues(List)}
+     *
+     * @param values the parsed values of the constructor parameters and the setters
+     * @return a new instance
+     */
+    T newParsedInstance(final Object[] values)
+    {
+        Params<T> p = getParams();
+        T instance = newInstance(Arrays.copyOf(values, p.ctor.length));
+        IInstanceableMetrics m = getMetrics();
+        for (int i = 0; i < p.setters.length; i++)
         {
-            String value = values.get(i++);
-            setter.apply(instance, value);
+            applySetter(p.setters[i], instance, values[p.ctor.length + i], m);
         }
         return instance;
     }
 
 
+    private Object parse(
+        final IInstanceableParameter param,
+        final int index,
+        final String value,
+        final IInstanceableMetrics m
+    )
+    {
+        if (m == IInstanceableMetrics.NO_OP)
+        {
+            return parse(param, index, value);
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try
+        {
+            Object parsed = parse(param, index, value);
+            success = true;
+            return parsed;
+        } finally
+        {
+            m.onParse(impl, param, System.nanoTime() - start, success);
+        }
+    }
+
+
     /**
-     * Create a new instance with default parameters (as defined in enum)
+     * Parse a constructor argument into its slot of a vector, primitives are not boxed
+     */
+    private void parse(
+        final ArgumentVector args,
+        final InstanceableParameter param,
+        final int index,
+        final String value,
+        final IInstanceableMetrics m
+    )
+    {
+        if (m == IInstanceableMetrics.NO_OP)
+        {
+            parse(args, param, index, value);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try
+        {
+            parse(args, param, index, value);
+            success = true;
+        } finally
+        {
+            m.onParse(impl, param, System.nanoTime() - start, success);
+        }
+    }
+
+
+    private static void parse(
+        final ArgumentVector args,
+        final InstanceableParameter param,
+        final int index,
+        final String value
+    )
+    {
+        try
+        {
+            args.set(index, value);
+        } catch (RuntimeException err)
+        {
+            throw new NotCreateableException("Could not parse parameter '" + param.getDescription()
+                    + "' (index " + index + ") from value '" + value + "'", err);
+        }
+    }
+
+
+    private void applySetter(
+        final InstanceableSetter<?, T> setter,
+        final T instance,
+        final Object value,
+        final IInstanceableMetrics m
+    )
+    {
+        if (m == IInstanceableMetrics.NO_OP)
+        {
+            setter.applyValue(instance, value);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try
+        {
+            setter.applyValue(instance, value);
+            success = true;
+        } finally
+        {
+            m.onSetter(impl, setter, System.nanoTime() - start, success);
+        }
+    }
+
+
+    Object parse(final IInstanceableParameter param, final int index, final String value)
+    {
+        return parse(param, index, value, converter);
+    }
+
+
+    private static Object parse(
+        final IInstanceableParameter param,
+        final int index,
+        final String value,
+        final IValueConverter converter
+    )
+    {
+        try
+        {
+            return param.parseString(value, converter);
+        } catch (RuntimeException err)
+        {
+            throw new NotCreateableException("Could not parse parameter '" + param.getDescription()
+                    + "' (index " + index + ") from value '" + value + "'", err);
+        }
+    }
+
+
+    /**
+     * Parse all values without creating an instance. Neither the constructor nor any setter is called.
+     *
+     * @param values the parameters to the constructor and to the setters
+     * @return all errors in the order of the parameters, an empty list if all values are valid
+     */
+    public List<ValidationError> validate(final List<String> values)
+    {
+        IInstanceableParameter[] all = getParams().all;
+        if (values.size() != all.length)
+        {
+            return Collections.singletonList(ValidationError.wrongNumberOfParameters(all.length, values.size()));
+        }
+
+        IInstanceableMetrics m = getMetrics();
+        List<ValidationError> errors = null;
+        for (int i = 0; i < all.length; i++)
+        {
+            IInstanceableParameter param = all[i];
+            try
+            {
+                parse(param, i, values.get(i), m);
+            } catch (NotCreateableException err)
+            {
+                if (errors == null)
+                {
+                    errors = new ArrayList<>(1);
+                }
+                errors.add(ValidationError.parameter(i, param, values.get(i), err.getCause()));
+            }
+        }
+        return errors == null ? Collections.emptyList() : errors;
+    }
+
+
+    /**
+     * Validate rows in parallel on the configured {@link ForkJoinPool}, see {@link #validate(List)}.
+     *
+     * @param rows the parameters to the constructor and to the setters for each row
+     * @return the errors of each row in the order of the rows
+     */
+    public List<List<ValidationError>> validateAll(final List<List<String>> rows)
+    {
+        ForkJoinPool pool = forkJoinPool == null ? ForkJoinPool.commonPool() : forkJoinPool;
+        return pool.submit(() -> IntStream.range(0, rows.size())
+                .parallel()
+                .mapToObj(i -> validate(rows.get(i)))
+                .collect(Collectors.toList())).join();
+    }
+
+
+    /**
+     * Create new instances in parallel on the configured {@link ForkJoinPool}.
+     * A row that can not be created is reported in its result and does not abort the batch.
+     *
+     * @param rows the parameters to the constructor and to the setters for each instance
+     * @return a result for each row in the order of the rows
+     */
+    public List<InstanceResult<T>> newInstances(final List<List<String>> rows)
+    {
+        ForkJoinPool pool = forkJoinPool == null ? ForkJoinPool.commonPool() : forkJoinPool;
+        return pool.submit(() -> newInstanceStream(rows).collect(Collectors.toList())).join();
+    }
+
+
+    /**
+     * Create new instances lazily with an ordered parallel stream.
+     * The stream runs in the pool of the thread that calls the terminal operation,
+     * use {@link #newInstances(List)} to run on the configured pool.
+     *
+     * @param rows the parameters to the constructor and to the setters for each instance
+     * @return a stream of results in the order of the rows
+     */
+    public Stream<InstanceResult<T>> newInstanceStream(final List<List<String>> rows)
+    {
+        return IntStream.range(0, rows.size())
+                .parallel()
+                .mapToObj(i -> tryNewInstance(i, rows.get(i)));
+    }
+
+
+    private InstanceResult<T> tryNewInstance(final int index, final List<String> values)
+    {
+        try
+        {
+            return InstanceResult.success(index, newInstance(values));
+        } catch (NotCreateableException err)
+        {
+            return InstanceResult.failure(index, err);
+        } catch (RuntimeException err)
+        {
+            return InstanceResult.failure(index, new NotCreateableException("Can not create instance", err));
+        }
+    }
+
+
+    /**
+     * Create a new instance with default parameters (as defined in enum).
+     * The default values are only parsed on the first call.
      *
      * @return a new instance
      * @throws NotCreateableException if the instance could not be created
      */
     public T newDefaultInstance()
     {
-        if (ctorParams.isEmpty())
+        DefaultValues defaults = getDefaultValues();
+        UnaryOperator<Object> copier = defaultValueCopier;
+        T o = copier == null && getCreationPath() == CreationPath.METHOD_HANDLE && defaults.isCtorVectorComplete()
+                ? newInstance(defaults.getCtorVector())
+                : newInstance(copy(defaults.getCtorArgs(), copier));
+        applyDefaultSetters(o, defaults, copier);
+        return o;
+    }
+
+
+    /**
+     * Apply the default values of all setters to an existing instance
+     *
+     * @param instance the instance
+     */
+    void applyDefaultSetters(final T instance)
+    {
+        applyDefaultSetters(instance, getDefaultValues(), defaultValueCopier);
+    }
+
+
+    private void applyDefaultSetters(final T instance, final DefaultValues defaults, final UnaryOperator<Object> copier)
+    {
+        Object[] setterValues = copy(defaults.getSetterValues(), copier);
+        InstanceableSetter<?, T>[] setters = getParams().setters;
+        IInstanceableMetrics m = getMetrics();
+        for (int i = 0; i < setterValues.length; i++)
         {
-            return newInstance();
+            applySetter(setters[i], instance, setterValues[i], m);
         }
-        List<Object> objParams = new ArrayList<>(ctorParams.size());
-        for (InstanceableParameter param : ctorParams)
+    }
+
+
+    private static Object[] copy(final Object[] values, final UnaryOperator<Object> copier)
+    {
+        if (copier == null || values.length == 0)
         {
-            Object objParam = param.parseString(param.getDefaultValue());
-            objParams.add(objParam);
+            return values;
         }
-        T o = newInstance(objParams.toArray());
-        for (InstanceableSetter<?, T> setter : setterParams)
+        Object[] copies = new Object[values.length];
+        for (int i = 0; i < values.length; i++)
         {
-            setter.apply(o, setter.getDefaultValue());
+            copies[i] = copier.apply(values[i]);
         }
-        return o;
+        return copies;
+    }
+
+
+    private DefaultValues getDefaultValues()
+    {
+        DefaultValues defaults = defaultValues;
+        if (defaults == null)
+        {
+            defaults = new DefaultValues(getParams(), converter);
+            defaultValues = defaults;
+        }
+        return defaults;
+    }
+
+
+    /**
+     * @return the compiled constructor associated with the stored parameters.
+     * @throws NotCreateableException if no constructor for the stored parameters could be found.
+     */
+    private IInstanceFactory<T> getFactory()
+    {
+        IInstanceFactory<T> f = factory;
+        if (f == null)
+        {
+            f = resolveFactory();
+            factory = f;
+        }
+        return f;
+    }
+
+
+    private IInstanceFactory<T> resolveFactory()
+    {
+        Class<?>[] paramTypes = getParams().ctorTypes;
+        IInstanceFactory<T> generated = InstanceFactories.generated(impl, paramTypes);
+        if (generated != null)
+        {
+            return generated;
+        }
+        try
+        {
+            Constructor<T> con = impl.getConstructor(paramTypes);
+            IInstanceFactory<T> f = lambdaFactory ? InstanceFactories.lambda(con) : null;
+            return f != null ? f : InstanceFactories.methodHandle(con);
+        } catch (NoSuchMethodException err)
+        {
+            throw new NotCreateableException("Wrong constructor types.", err);
+        } catch (IllegalAccessException err)
+        {
+            throw new NotCreateableException("Constructor not accessible.", err);
+        }
+    }
+
+
+    private InstanceFactories.VectorFactory<T> getVectorFactory()
+    {
+        InstanceFactories.VectorFactory<T> f = vectorFactory;
+        if (f == null)
+        {
+            ArgumentVector layout = newBlankArgumentVector();
+            try
+            {
+                f = InstanceFactories.vector(impl.getConstructor(layout.getTypes()), layout);
+            } catch (NoSuchMethodException err)
+            {
+                throw new NotCreateableException("Wrong constructor types.", err);
+            } catch (IllegalAccessException err)
+            {
+                throw new NotCreateableException("Constructor not accessible.", err);
+            }
+            vectorFactory = f;
+        }
+        return f;
+    }
+
+
+    private Params<T> getParams()
+    {
+        Params<T> p = params;
+        if (p == null)
+        {
+            p = new Params<>(ctorParams, setterParams);
+            params = p;
+        }
+        return p;
     }
 
 
     /**
-     * @return the public constructor associated with the stored parameters.
-     * @throws NoSuchMethodException if no constructor for the stored parameters could be found.
+     * @return the cached parsed default values of the constructor parameters and the setters,
+     *         in a new array and copied with the default value copier
+     * @throws NotCreateableException if a default value can not be parsed
      */
-    private Constructor<T> getConstructor() throws NoSuchMethodException
+    Object[] getParsedDefaultValues()
+    {
+        DefaultValues defaults = getDefaultValues();
+        UnaryOperator<Object> copier = defaultValueCopier;
+        Object[] values = new Object[getParams().all.length];
+        for (int i = 0; i < values.length; i++)
+        {
+            Object value = defaults.get(i);
+            values[i] = copier == null ? value : copier.apply(value);
+        }
+        return values;
+    }
+
+
+    List<String> getDefaultValueStrings()
     {
-        Class<?>[] paramTypes = new Class<?>[ctorParams.size()];
-        for (int i = 0; i < ctorParams.size(); i++)
+        IInstanceableParameter[] all = getParams().all;
+        List<String> values = new ArrayList<>(all.length);
+        for (IInstanceableParameter param : all)
         {
-            paramTypes[i] = ctorParams.get(i).getImpl();
+            values.add(param.getDefaultValue());
         }
-        return impl.getConstructor(paramTypes);
+        return values;
+    }
+
+
+    /**
+     * @param description the description of a parameter
+     * @return the index of the first parameter with the description in {@link #getAllParams()}, or -1
+     */
+    int indexOf(final String description)
+    {
+        Integer index = getParams().indexByDescription.get(description);
+        return index == null ? -1 : index;
+    }
+
+
+    /**
+     * Apply a parsed value with a setter
+     *
+     * @param index the index of the setter in {@link #getAllParams()}
+     * @param instance the instance
+     * @param value the parsed value
+     */
+    void applySetter(final int index, final T instance, final Object value)
+    {
+        Params<T> p = getParams();
+        applySetter(p.setters[index - p.ctor.length], instance, value, getMetrics());
+    }
+
+
+    int getCtorParamCount()
+    {
+        return getParams().ctor.length;
     }
 
 
     /**
-     * @return a list with the constructor params and the setters
+     * @return an unmodifiable list with the constructor params and the setters
      */
     public List<IInstanceableParameter> getAllParams()
     {
-        List<IInstanceableParameter> allParams = new ArrayList<>(ctorParams);
-        allParams.addAll(setterParams);
-        return allParams;
+        return getParams().allParams;
+    }
+
+
+    /**
+     * An immutable copy of the constructor parameters and the setters in flat arrays
+     *
+     * @param <T> the type of the instances
+     */
+    private static final class Params<T>
+    {
+        private final InstanceableParameter[] ctor;
+        private final List<InstanceableParameter> ctorList;
+        private final InstanceableSetter<?, T>[] setters;
+        private final IInstanceableParameter[] all;
+        private final Class<?>[] ctorTypes;
+        private final List<IInstanceableParameter> allParams;
+        /** index of the first parameter with each description */
+        private final Map<String, Integer> indexByDescription;
+
+
+        @SuppressWarnings("unchecked")
+        Params(final List<InstanceableParameter> ctorParams, final List<InstanceableSetter<?, T>> setterParams)
+        {
+            ctor = ctorParams.toArray(new InstanceableParameter[0]);
+            ctorList = Collections.unmodifiableList(Arrays.asList(ctor));
+            setters = setterParams.toArray((InstanceableSetter<?, T>[]) new InstanceableSetter<?, ?>[0]);
+            all = new IInstanceableParameter[ctor.length + setters.length];
+            System.arraycopy(ctor, 0, all, 0, ctor.length);
+            System.arraycopy(setters, 0, all, ctor.length, setters.length);
+            ctorTypes = new Class<?>[ctor.length];
+            for (int i = 0; i < ctor.length; i++)
+            {
+                ctorTypes[i] = ctor[i].getImpl();
+            }
+            allParams = Collections.unmodifiableList(Arrays.asList(all));
+            indexByDescription = new HashMap<>();
+            for (int i = 0; i < all.length; i++)
+            {
+                indexByDescription.putIfAbsent(all[i].getDescription(), i);
+            }
+        }
+    }
+
+
+    /**
+     * The default values of the constructor parameters and the setters, each parsed on first use.
+     * A value that can not be parsed only fails the operations that need it.
+     */
+    private static final class DefaultValues
+    {
+        private final Params<?> params;
+        private final IValueConverter converter;
+        /** a vector without values, copied for each vector that is filled by the caller */
+        private final ArgumentVector blankVector;
+        private final AtomicReferenceArray<ParsedValue> parsed;
+        private volatile Object[] ctorArgs = null;
+        private volatile Object[] setterValues = null;
+        private volatile ArgumentVector ctorVector = null;
+        private volatile boolean ctorVectorComplete = false;
+
+
+        DefaultValues(final Params<?> params, final IValueConverter converter)
+        {
+            this.params = params;
+            this.converter = converter;
+            blankVector = new ArgumentVector(params.ctorList, params.ctorTypes, converter);
+            parsed = new AtomicReferenceArray<>(params.all.length);
+        }
+
+
+        /**
+         * @param index the index of the parameter in {@link Params#all}
+         * @return the parsed default value
+         * @throws NotCreateableException if the default value can not be parsed
+         */
+        Object get(final int index)
+        {
+            ParsedValue value = getParsed(index);
+            if (value.error != null)
+            {
+                throw new NotCreateableException(value.error.getMessage(), value.error.getCause());
+            }
+            return value.value;
+        }
+
+
+        private ParsedValue getParsed(final int index)
+        {
+            ParsedValue value = parsed.get(index);
+            if (value == null)
+            {
+                IInstanceableParameter param = params.all[index];
+                try
+                {
+                    value = new ParsedValue(parse(param, index, param.getDefaultValue(), converter), null);
+                } catch (NotCreateableException err)
+                {
+                    value = new ParsedValue(null, err);
+                }
+                parsed.set(index, value);
+            }
+            return value;
+        }
+
+
+        /**
+         * @return the shared constructor arguments, must not be modified
+         */
+        Object[] getCtorArgs()
+        {
+            Object[] args = ctorArgs;
+            if (args == null)
+            {
+                args = new Object[params.ctor.length];
+                for (int i = 0; i < args.length; i++)
+                {
+                    args[i] = get(i);
+                }
+                ctorArgs = args;
+            }
+            return args;
+        }
+
+
+        /**
+         * @return the shared setter values, must not be modified
+         */
+        Object[] getSetterValues()
+        {
+            Object[] values = setterValues;
+            if (values == null)
+            {
+                values = new Object[params.setters.length];
+                for (int i = 0; i < values.length; i++)
+                {
+                    values[i] = get(params.ctor.length + i);
+                }
+                setterValues = values;
+            }
+            return values;
+        }
+
+
+        /**
+         * @return the shared vector with all constructor arguments that could be parsed, must not be modified
+         */
+        ArgumentVector getCtorVector()
+        {
+            ArgumentVector vector = ctorVector;
+            if (vector == null)
+            {
+                vector = blankVector.copy();
+                boolean complete = true;
+                for (int i = 0; i < params.ctor.length; i++)
+                {
+                    ParsedValue value = getParsed(i);
+                    if (value.error != null || (value.value == null && params.ctorTypes[i].isPrimitive()))
+                    {
+                        complete = false;
+                    } else
+                    {
+                        vector.setValue(i, value.value);
+                    }
+                }
+                ctorVectorComplete = complete;
+                ctorVector = vector;
+            }
+            return vector;
+        }
+
+
+        /**
+         * @return true, if all constructor arguments of {@link #getCtorVector()} are set
+         */
+        boolean isCtorVectorComplete()
+        {
+            getCtorVector();
+            return ctorVectorComplete;
+        }
+    }
+
+
+    /**
+     * The result of parsing one default value
+     */
+    private static final class ParsedValue
+    {
+        private final Object value;
+        private final NotCreateableException error;
+
+
+        ParsedValue(final Object value, final NotCreateableException error)
+        {
+            this.value = value;
+            this.error = error;
+        }
+    }
+
+
+    /**
+     * The way an {@link InstanceableClass} calls the constructor of its implementation
+     */
+    public enum CreationPath
+    {
+        /** a method handle of the reflected constructor */
+        METHOD_HANDLE,
+        /** a factory generated by the {@link java.lang.invoke.LambdaMetafactory} */
+        LAMBDA_FACTORY,
+        /** a factory generated at compile time for an {@link InstanceableConstructor} */
+        GENERATED_FACTORY,
     }
 
 
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Marks a public constructor that is used by an {@link InstanceableClass}.
+ * With the <code>instanceables-processor</code> on the annotation processor path, a factory class named
+ * <code>&lt;Class&gt;_InstanceFactories</code> is generated next to the class. It calls the constructor directly
+ * and is picked up by {@link InstanceableClass} automatically, so no reflection is needed to create instances.
+ * For nested classes, the names of the enclosing classes are prepended with an underscore.
+ * The processor reports annotated constructors that are not public as a compile error,
+ * as {@link InstanceableClass} only calls public constructors.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.CONSTRUCTOR)
+public @interface InstanceableConstructor
+{
+}
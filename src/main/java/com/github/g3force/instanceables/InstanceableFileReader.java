@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import com.github.g3force.instanceables.InstanceableClass.NotCreateableException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Reads instances incrementally from a file with one row of parameter values per instance.
+ * The values are in the order of {@link InstanceableClass#getAllParams()} and separated by a separator char.
+ * Values that contain the separator or a line break can be quoted with <code>"</code>,
+ * a quote within a quoted value is escaped by doubling it.
+ * Empty lines and lines starting with <code>#</code> are skipped.
+ * <p>
+ * The file is read through a {@link FileChannel} with a fixed buffer and the row values are kept in a reused array,
+ * so the memory usage does not depend on the file size.
+ *
+ * @param <T> the type of the instances
+ */
+public class InstanceableFileReader<T> implements Iterator<T>, Closeable
+{
+    private static final char QUOTE = '"';
+    private static final char COMMENT = '#';
+    private static final int EOF = -1;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InstanceableClass<T> instanceableClass;
+    private final Reader reader;
+    private final char separator;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder value = new StringBuilder();
+    private final String[] values;
+    private final List<String> valueList;
+    private int bufferPos = 0;
+    private int bufferLimit = 0;
+    private int lineNumber = 0;
+    private int rowLineNumber = 0;
+    private boolean rowPending = false;
+
+
+    /**
+     * @param instanceableClass the class to create the instances with
+     * @param file the file to read (UTF-8)
+     * @param separator the char that separates the values of a row
+     * @throws IOException if the file could not be opened
+     */
+    public InstanceableFileReader(final InstanceableClass<T> instanceableClass, final Path file, final char separator)
+            throws IOException
+    {
+        this.instanceableClass = instanceableClass;
+        this.separator = separator;
+        this.reader = Channels.newReader(
+                FileChannel.open(file, StandardOpenOption.READ),
+                StandardCharsets.UTF_8.newDecoder(),
+                -1);
+        this.values = new String[instanceableClass.getAllParams().size()];
+        this.valueList = Arrays.asList(values);
+    }
+
+
+    /**
+     * Stream all instances of the given file. The stream must be closed to close the file.
+     *
+     * @param instanceableClass the class to create the instances with
+     * @param file the file to read (UTF-8)
+     * @param separator the char that separates the values of a row
+     * @param <T> the type of the instances
+     * @return an ordered, sequential stream of the instances
+     * @throws IOException if the file could not be opened
+     */
+    public static <T> Stream<T> stream(
+        final InstanceableClass<T> instanceableClass,
+        final Path file,
+        final char separator
+    ) throws IOException
+    {
+        InstanceableFileReader<T> fileReader = new InstanceableFileReader<>(instanceableClass, file, separator);
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(fileReader, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false).onClose(fileReader::closeUnchecked);
+    }
+
+
+    /**
+     * @throws UncheckedIOException if the file could not be read
+     * @throws NotCreateableException if a row is malformed
+     */
+    @Override
+    public boolean hasNext()
+    {
+        if (!rowPending)
+        {
+            try
+            {
+                rowPending = readRow();
+            } catch (IOException err)
+            {
+                throw new UncheckedIOException("Could not read line " + lineNumber, err);
+            }
+        }
+        return rowPending;
+    }
+
+
+    /**
+     * @return the instance created from the next row
+     * @throws NotCreateableException if the row is malformed or the instance could not be created,
+     *                                the message contains the line number
+     */
+    @Override
+    public T next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+        rowPending = false;
+        try
+        {
+            return instanceableClass.newInstance(valueList);
+        } catch (NotCreateableException err)
+        {
+            throw new NotCreateableException("Line " + rowLineNumber + ": " + err.getMessage(), err);
+        }
+    }
+
+
+    /**
+     * @return the line number of the last row that was read
+     */
+    public int getLineNumber()
+    {
+        return rowLineNumber;
+    }
+
+
+    @Override
+    public void close() throws IOException
+    {
+        reader.close();
+    }
+
+
+    private void closeUnchecked()
+    {
+        try
+        {
+            close();
+        } catch (IOException err)
+        {
+            throw new UncheckedIOException(err);
+        }
+    }
+
+
+    private boolean readRow() throws IOException
+    {
+        int c;
+        do
+        {
+            c = nextChar();
+            if (c == EOF)
+            {
+                return false;
+            }
+            lineNumber++;
+            if (c == COMMENT)
+            {
+                c = skipLine();
+            }
+        } while (c == '\n');
+        if (c == EOF)
+        {
+            return false;
+        }
+
+        rowLineNumber = lineNumber;
+        int numValues = 0;
+        boolean quoted = false;
+        value.setLength(0);
+        while (true)
+        {
+            if (quoted)
+            {
+                if (c == EOF)
+                {
+                    throw malformedRow("Unterminated quoted value");
+                }
+                if (c == QUOTE)
+                {
+                    c = nextChar();
+                    if (c != QUOTE)
+                    {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n')
+                {
+                    lineNumber++;
+                }
+                value.append((char) c);
+            } else if (c == QUOTE && value.length() == 0)
+            {
+                quoted = true;
+            } else if (c == separator || c == '\n' || c == EOF)
+            {
+                if (numValues >= values.length)
+                {
+                    if (c == separator)
+                    {
+                        skipLine();
+                    }
+                    throw malformedRow("Too many values, expected " + values.length);
+                }
+                values[numValues++] = value.toString();
+                value.setLength(0);
+                if (c != separator)
+                {
+                    break;
+                }
+            } else
+            {
+                value.append((char) c);
+            }
+            c = nextChar();
+        }
+        if (numValues != values.length)
+        {
+            throw malformedRow("Wrong number of values: " + numValues + ", expected " + values.length);
+        }
+        return true;
+    }
+
+
+    private NotCreateableException malformedRow(final String message)
+    {
+        return new NotCreateableException("Line " + rowLineNumber + ": " + message);
+    }
+
+
+    private int skipLine() throws IOException
+    {
+        int c;
+        do
+        {
+            c = nextChar();
+        } while (c != '\n' && c != EOF);
+        return c;
+    }
+
+
+    /**
+     * @return the next char, ignoring carriage returns, or {@link #EOF}
+     */
+    private int nextChar() throws IOException
+    {
+        while (true)
+        {
+            if (bufferPos >= bufferLimit)
+            {
+                bufferLimit = reader.read(buffer, 0, buffer.length);
+                bufferPos = 0;
+                if (bufferLimit <= 0)
+                {
+                    bufferLimit = 0;
+                    return EOF;
+                }
+            }
+            char c = buffer[bufferPos++];
+            if (c != '\r')
+            {
+                return c;
+            }
+        }
+    }
+}
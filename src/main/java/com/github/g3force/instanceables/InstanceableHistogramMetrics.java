@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Metrics that record the timings in lock-free histograms, one per phase, implementation class
+ * and parameter description.
+ */
+public class InstanceableHistogramMetrics implements IInstanceableMetrics
+{
+    private static final String NO_PARAMETER = "";
+
+    private final Map<Phase, ConcurrentMap<Class<?>, ConcurrentMap<String, Histogram>>> histograms =
+            new EnumMap<>(Phase.class);
+
+
+    public InstanceableHistogramMetrics()
+    {
+        for (Phase phase : Phase.values())
+        {
+            histograms.put(phase, new ConcurrentHashMap<>());
+        }
+    }
+
+
+    @Override
+    public void onParse(final Class<?> impl, final IInstanceableParameter param, final long nanos,
+        final boolean success)
+    {
+        histogram(Phase.PARSE, impl, param.getDescription()).record(nanos, success);
+    }
+
+
+    @Override
+    public void onConstruct(final Class<?> impl, final long nanos, final boolean success)
+    {
+        histogram(Phase.CONSTRUCT, impl, NO_PARAMETER).record(nanos, success);
+    }
+
+
+    @Override
+    public void onSetter(final Class<?> impl, final IInstanceableParameter setter, final long nanos,
+        final boolean success)
+    {
+        histogram(Phase.SETTER, impl, setter.getDescription()).record(nanos, success);
+    }
+
+
+    /**
+     * @param phase the phase
+     * @param impl the implementation class
+     * @return the histograms of the phase by parameter description (an empty description for the constructor)
+     */
+    public Map<String, Histogram> getHistograms(final Phase phase, final Class<?> impl)
+    {
+        Map<String, Histogram> byParam = histograms.get(phase).get(impl);
+        return byParam == null ? Collections.emptyMap() : Collections.unmodifiableMap(byParam);
+    }
+
+
+    /**
+     * @return all histograms by phase, implementation class and parameter description
+     */
+    public Map<Phase, ConcurrentMap<Class<?>, ConcurrentMap<String, Histogram>>> getAllHistograms()
+    {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+
+    private Histogram histogram(final Phase phase, final Class<?> impl, final String description)
+    {
+        ConcurrentMap<Class<?>, ConcurrentMap<String, Histogram>> byImpl = histograms.get(phase);
+        ConcurrentMap<String, Histogram> byParam = byImpl.get(impl);
+        if (byParam == null)
+        {
+            byParam = byImpl.computeIfAbsent(impl, k -> new ConcurrentHashMap<>());
+        }
+        Histogram histogram = byParam.get(description);
+        if (histogram == null)
+        {
+            histogram = byParam.computeIfAbsent(description, k -> new Histogram());
+        }
+        return histogram;
+    }
+
+
+    /**
+     * The phases of an instance creation
+     */
+    public enum Phase
+    {
+        PARSE,
+        CONSTRUCT,
+        SETTER,
+    }
+
+    /**
+     * A histogram with logarithmic buckets (powers of two nanoseconds) and success/failure counters
+     */
+    public static class Histogram
+    {
+        private static final int NUM_BUCKETS = 64;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+
+        void record(final long nanos, final boolean success)
+        {
+            buckets.incrementAndGet(bucket(nanos));
+            totalNanos.add(nanos);
+            if (success)
+            {
+                successes.increment();
+            } else
+            {
+                failures.increment();
+            }
+        }
+
+
+        private static int bucket(final long nanos)
+        {
+            return NUM_BUCKETS - 1 - Long.numberOfLeadingZeros(Math.max(nanos, 1));
+        }
+
+
+        /**
+         * @return the number of successful calls
+         */
+        public long getSuccesses()
+        {
+            return successes.sum();
+        }
+
+
+        /**
+         * @return the number of failed calls
+         */
+        public long getFailures()
+        {
+            return failures.sum();
+        }
+
+
+        /**
+         * @return the number of recorded calls
+         */
+        public long getCount()
+        {
+            return getSuccesses() + getFailures();
+        }
+
+
+        /**
+         * @return the mean duration in nanoseconds
+         */
+        public double getMeanNanos()
+        {
+            long count = getCount();
+            return count == 0 ? 0 : (double) totalNanos.sum() / count;
+        }
+
+
+        /**
+         * @param percentile the percentile in [0, 1]
+         * @return an upper bound of the duration of the percentile in nanoseconds (a power of two)
+         */
+        public long getPercentileNanos(final double percentile)
+        {
+            long total = 0;
+            long[] counts = new long[NUM_BUCKETS];
+            for (int i = 0; i < NUM_BUCKETS; i++)
+            {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            long threshold = (long) Math.ceil(percentile * total);
+            long sum = 0;
+            for (int i = 0; i < NUM_BUCKETS - 1; i++)
+            {
+                sum += counts[i];
+                if (sum >= threshold && sum > 0)
+                {
+                    return 1L << (i + 1);
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+
+        @Override
+        public String toString()
+        {
+            return "Histogram{" +
+                    "count=" + getCount() +
+                    ", failures=" + getFailures() +
+                    ", mean=" + getMeanNanos() +
+                    "ns, p99=" + getPercentileNanos(0.99) +
+                    "ns}";
+        }
+    }
+}
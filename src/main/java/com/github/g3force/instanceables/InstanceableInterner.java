@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Returns one shared instance of an {@link InstanceableClass} for equal parsed parameter values.
+ * Only use this for immutable types, as all callers share the same instance.
+ * The instances are referenced weakly or softly, so instances that are not used anymore can be collected.
+ * The parameter types should implement {@link Object#equals(Object)} and {@link Object#hashCode()}.
+ *
+ * @param <T> the type of the instances
+ */
+public class InstanceableInterner<T>
+{
+    private final InstanceableClass<T> instanceableClass;
+    private final Retention retention;
+    private final ConcurrentHashMap<List<Object>, Reference<T>> instances = new ConcurrentHashMap<>();
+    private final ReferenceQueue<T> collected = new ReferenceQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+
+    /**
+     * @param instanceableClass the class to create the canonical instances with
+     * @param retention how the canonical instances are referenced
+     */
+    public InstanceableInterner(final InstanceableClass<T> instanceableClass, final Retention retention)
+    {
+        this.instanceableClass = instanceableClass;
+        this.retention = retention;
+    }
+
+
+    /**
+     * Get the canonical instance for the given values, create it if there is none
+     *
+     * @param values the parameters to the constructor and to the setters
+     * @return the shared instance
+     * @throws InstanceableClass.NotCreateableException if the instance could not be created
+     */
+    public T newInstance(final List<String> values)
+    {
+        return intern(instanceableClass.parseValues(values));
+    }
+
+
+    /**
+     * Get the canonical instance for the default values. The default values are only parsed once.
+     *
+     * @return the shared instance
+     * @throws InstanceableClass.NotCreateableException if the instance could not be created
+     */
+    public T newDefaultInstance()
+    {
+        return intern(instanceableClass.getParsedDefaultValues());
+    }
+
+
+    private T intern(final Object[] parsed)
+    {
+        expungeCollected();
+        List<Object> key = Arrays.asList(parsed);
+        Reference<T> ref = instances.get(key);
+        T instance = ref == null ? null : ref.get();
+        if (instance != null)
+        {
+            hits.increment();
+            return instance;
+        }
+        misses.increment();
+        T created = instanceableClass.newParsedInstance(parsed);
+        Reference<T> createdRef = newReference(key, created);
+        while (true)
+        {
+            Reference<T> existing = instances.putIfAbsent(key, createdRef);
+            if (existing == null)
+            {
+                return created;
+            }
+            T other = existing.get();
+            if (other != null)
+            {
+                return other;
+            }
+            if (instances.replace(key, existing, createdRef))
+            {
+                return created;
+            }
+        }
+    }
+
+
+    private Reference<T> newReference(final List<Object> key, final T instance)
+    {
+        return retention == Retention.SOFT
+                ? new SoftValue<>(key, instance, collected)
+                : new WeakValue<>(key, instance, collected);
+    }
+
+
+    private void expungeCollected()
+    {
+        Reference<? extends T> ref;
+        while ((ref = collected.poll()) != null)
+        {
+            instances.remove(((IKeyed) ref).getKey(), ref);
+        }
+    }
+
+
+    /**
+     * @return the number of requests that returned an existing instance
+     */
+    public long getHits()
+    {
+        return hits.sum();
+    }
+
+
+    /**
+     * @return the number of requests that created a new instance
+     */
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+
+
+    /**
+     * @return the ratio of hits to all requests, or 0 if there were no requests
+     */
+    public double getHitRate()
+    {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+
+    /**
+     * @return the number of canonical instances that are currently retained
+     */
+    public int getRetainedCount()
+    {
+        expungeCollected();
+        return instances.size();
+    }
+
+
+    /**
+     * How the canonical instances are referenced
+     */
+    public enum Retention
+    {
+        /** collected as soon as no one else uses them */
+        WEAK,
+        /** kept until the memory is needed */
+        SOFT,
+    }
+
+
+    private interface IKeyed
+    {
+        List<Object> getKey();
+    }
+
+
+    private static class WeakValue<T> extends WeakReference<T> implements IKeyed
+    {
+        private final List<Object> key;
+
+
+        WeakValue(final List<Object> key, final T value, final ReferenceQueue<? super T> queue)
+        {
+            super(value, queue);
+            this.key = key;
+        }
+
+
+        @Override
+        public List<Object> getKey()
+        {
+            return key;
+        }
+    }
+
+
+    private static class SoftValue<T> extends SoftReference<T> implements IKeyed
+    {
+        private final List<Object> key;
+
+
+        SoftValue(final List<Object> key, final T value, final ReferenceQueue<? super T> queue)
+        {
+            super(value, queue);
+            this.key = key;
+        }
+
+
+        @Override
+        public List<Object> getKey()
+        {
+            return key;
+        }
+    }
+}
@@ -18,14 +18,21 @@ import javax.swing.JComponent;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
 import java.awt.BorderLayout;
+import java.awt.CardLayout;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 
@@ -37,13 +44,24 @@ public class InstanceablePanel extends JPanel
     private static final long serialVersionUID = -6272636064374504265L;
     private static final Logger log = LogManager.getLogger(InstanceablePanel.class.getName());
     private static final String DEFAULT_SELECTION = "default";
+    private static final int DEFAULT_MAX_CACHED_FORMS = 32;
     private final JComboBox<IInstanceableEnum> cbbInstances;
     private final JPanel inputPanel;
-    private final List<JComponent> inputFields = new ArrayList<>();
+    private final CardLayout inputLayout = new CardLayout();
+    private final Map<IInstanceableEnum, InputForm> inputForms = new InputFormCache();
+    private final Map<Class<?>, Object[]> enumConstants = new HashMap<>();
+    private int maxCachedForms = DEFAULT_MAX_CACHED_FORMS;
+    private int numCreatedForms = 0;
+    private List<JComponent> inputFields = new ArrayList<>();
     private JButton btnCreate = null;
+    private transient Executor createExecutor = null;
+    private int pendingCreations = 0;
     private final transient List<IInstanceableObserver> observers = new CopyOnWriteArrayList<>();
+    private transient volatile AsyncObserverDispatcher dispatcher = null;
 
-    private final Properties prop;
+    private final transient IInstanceableStore store;
+    private final transient Map<IInstanceableEnum, String[]> paramKeys = new HashMap<>();
+    private final transient Map<Class<?>, String> defaultSelectionKeys = new HashMap<>();
 
 
     public InstanceablePanel(final IInstanceableEnum[] instanceableEnums)
@@ -54,12 +72,22 @@ public class InstanceablePanel extends JPanel
 
     public InstanceablePanel(final IInstanceableEnum[] instanceableEnums, final Properties prop)
     {
-        this.prop = prop;
+        this(instanceableEnums, new PropertiesInstanceableStore(prop));
+    }
+
+
+    /**
+     * @param instanceableEnums the enum values to choose from
+     * @param store the store for the parameter values and the selection, e.g. a {@link FileInstanceableStore}
+     */
+    public InstanceablePanel(final IInstanceableEnum[] instanceableEnums, final IInstanceableStore store)
+    {
+        this.store = store;
         cbbInstances = new JComboBox<>(instanceableEnums);
         CbbInstancesActionListener cbbInstAl = new CbbInstancesActionListener();
         cbbInstances.addActionListener(cbbInstAl);
         inputPanel = new JPanel();
-        inputPanel.setLayout(new GridLayout(0, 2));
+        inputPanel.setLayout(inputLayout);
 
         setLayout(new BorderLayout());
         add(cbbInstances, BorderLayout.NORTH);
@@ -90,32 +118,113 @@ public class InstanceablePanel extends JPanel
     }
 
 
+    /**
+     * The input forms of the last selected enum values are kept and shown again on selection.
+     *
+     * @param maxCachedForms the maximum number of cached input forms (at least 1)
+     */
+    public void setMaxCachedForms(final int maxCachedForms)
+    {
+        this.maxCachedForms = Math.max(1, maxCachedForms);
+    }
+
+
     public void addObserver(final IInstanceableObserver observer)
     {
-        synchronized (observers)
+        observers.add(observer);
+    }
+
+
+    public void removeObserver(final IInstanceableObserver observer)
+    {
+        observers.remove(observer);
+        AsyncObserverDispatcher d = dispatcher;
+        if (d != null)
         {
-            observers.add(observer);
+            d.remove(observer);
         }
     }
 
 
-    public void removeObserver(final IInstanceableObserver observer)
+    /**
+     * Deliver new instances to the observers asynchronously. Each observer gets its own bounded queue and
+     * receives the instances in the order they were created.
+     * Instances that are still pending from a previous call are delivered by the new dispatcher first.
+     *
+     * @param executor the executor that calls the observers, null for virtual threads (if available)
+     *                 or a cached thread pool
+     * @param queueCapacity the maximum number of pending instances per observer
+     * @param policy what to do if the queue of an observer is full
+     */
+    public void setAsyncDispatch(final Executor executor, final int queueCapacity, final BackpressurePolicy policy)
     {
-        synchronized (observers)
+        replaceDispatcher(new AsyncObserverDispatcher(executor, queueCapacity, policy));
+    }
+
+
+    /**
+     * Deliver new instances to the observers synchronously on the creating thread (default).
+     * Instances that are still pending from asynchronous dispatch are delivered on the calling thread first.
+     */
+    public void setSyncDispatch()
+    {
+        replaceDispatcher(null);
+    }
+
+
+    private void replaceDispatcher(final AsyncObserverDispatcher next)
+    {
+        AsyncObserverDispatcher previous = dispatcher;
+        if (previous != null)
         {
-            observers.remove(observer);
+            previous.close(next);
         }
+        dispatcher = next;
+    }
+
+
+    /**
+     * @return the number of instances that wait for delivery to all observers
+     */
+    public int getObserverQueueDepth()
+    {
+        AsyncObserverDispatcher d = dispatcher;
+        return d == null ? 0 : d.getQueueDepth();
+    }
+
+
+    /**
+     * @param observer an observer
+     * @return the number of instances that wait for delivery to the observer
+     */
+    public int getObserverQueueDepth(final IInstanceableObserver observer)
+    {
+        AsyncObserverDispatcher d = dispatcher;
+        return d == null ? 0 : d.getQueueDepth(observer);
+    }
+
+
+    /**
+     * @return the number of instances that were not delivered, because the queue of an observer was full
+     */
+    public long getDroppedObserverNotifications()
+    {
+        AsyncObserverDispatcher d = dispatcher;
+        return d == null ? 0 : d.getDropped();
     }
 
 
     private void notifyNewInstance(final Object instance)
     {
-        synchronized (observers)
+        AsyncObserverDispatcher d = dispatcher;
+        if (d != null)
         {
-            for (IInstanceableObserver observer : observers)
-            {
-                observer.onNewInstance(instance);
-            }
+            d.dispatch(observers, instance);
+            return;
+        }
+        for (IInstanceableObserver observer : observers)
+        {
+            observer.onNewInstance(instance);
         }
     }
 
@@ -135,37 +244,48 @@ public class InstanceablePanel extends JPanel
     @Override
     public void setEnabled(final boolean enabled)
     {
+        super.setEnabled(enabled);
         cbbInstances.setEnabled(enabled);
         inputPanel.setEnabled(enabled);
-        if (btnCreate != null)
-        {
-            btnCreate.setEnabled(enabled);
-        }
+        updateCreateButton();
     }
 
 
-    private String getModelParameterKey(final IInstanceableEnum instance, final IInstanceableParameter param)
+    /**
+     * The Create button is enabled, if the panel is enabled and no instance is being created
+     */
+    private void updateCreateButton()
     {
-        return instance.getClass().getCanonicalName() + "." + instance.name() + "." + param.getDescription();
+        if (btnCreate != null)
+        {
+            btnCreate.setEnabled(isEnabled() && pendingCreations == 0);
+        }
     }
 
 
-    private String getModelDefaultSelectionKey(final IInstanceableEnum instance)
+    /**
+     * @param instance the enum value
+     * @return the interned store keys of all parameters, computed once per enum value
+     */
+    private String[] getModelParameterKeys(final IInstanceableEnum instance)
     {
-        return instance.getClass().getCanonicalName() + "." + DEFAULT_SELECTION;
+        return paramKeys.computeIfAbsent(instance, i -> i.getInstanceableClass().getAllParams().stream()
+                .map(param -> (i.getClass().getCanonicalName() + "." + i.name() + "." + param.getDescription())
+                        .intern())
+                .toArray(String[]::new));
     }
 
 
-    private void saveParamValue(final IInstanceableEnum instance, final IInstanceableParameter param,
-        final String value)
+    private String getModelDefaultSelectionKey(final IInstanceableEnum instance)
     {
-        prop.setProperty(getModelParameterKey(instance, param), value);
+        return defaultSelectionKeys.computeIfAbsent(instance.getClass(),
+                c -> (c.getCanonicalName() + "." + DEFAULT_SELECTION).intern());
     }
 
 
     private void loadDefaultValue(final IInstanceableEnum instance)
     {
-        String value = prop.getProperty(getModelDefaultSelectionKey(instance));
+        String value = store.get(getModelDefaultSelectionKey(instance), null);
         if (value != null)
         {
             try
@@ -180,6 +300,20 @@ public class InstanceablePanel extends JPanel
     }
 
 
+    /**
+     * What to do with a new instance, if the queue of an observer is full
+     */
+    public enum BackpressurePolicy
+    {
+        /** drop the new instance */
+        DROP,
+        /** block the creating thread until the observer caught up or was removed */
+        BLOCK,
+        /** drop the oldest pending instance in favor of the new one */
+        COALESCE,
+    }
+
+
     private class CbbInstancesActionListener implements ActionListener
     {
 
@@ -191,18 +325,35 @@ public class InstanceablePanel extends JPanel
             {
                 return;
             }
-            inputPanel.removeAll();
-            inputFields.clear();
+            InputForm form = inputForms.get(instance);
+            if (form == null)
+            {
+                form = createInputForm(instance);
+                inputForms.put(instance, form);
+                inputPanel.add(form.panel, form.name);
+            }
+            inputFields = form.fields;
+            inputLayout.show(inputPanel, form.name);
+            saveDefaultValue(instance, instance.name());
+            revalidate();
+            repaint();
+        }
+
+
+        private InputForm createInputForm(final IInstanceableEnum instance)
+        {
+            InputForm form = new InputForm("form" + numCreatedForms++);
+            String[] keys = getModelParameterKeys(instance);
+            int i = 0;
             for (IInstanceableParameter param : instance.getInstanceableClass().getAllParams())
             {
-                String value = loadParamValue(instance, param);
+                String value = store.get(keys[i++], param.getDefaultValue());
                 JComponent comp = getComponent(param, value);
-                inputPanel.add(new JLabel(param.getDescription()));
-                inputPanel.add(comp);
-                inputFields.add(comp);
+                form.panel.add(new JLabel(param.getDescription()));
+                form.panel.add(comp);
+                form.fields.add(comp);
             }
-            saveDefaultValue(instance, instance.name());
-            updateUI();
+            return form;
         }
 
 
@@ -210,7 +361,8 @@ public class InstanceablePanel extends JPanel
         {
             if (param.getImpl().isEnum())
             {
-                JComboBox<?> cb = new JComboBox<>(param.getImpl().getEnumConstants());
+                JComboBox<?> cb = new JComboBox<>(enumConstants.computeIfAbsent(param.getImpl(),
+                        Class::getEnumConstants));
                 for (int i = 0; i < cb.getItemCount(); i++)
                 {
                     if (cb.getItemAt(i).toString().equals(value))
@@ -232,13 +384,49 @@ public class InstanceablePanel extends JPanel
 
         private void saveDefaultValue(final IInstanceableEnum instance, final String value)
         {
-            prop.setProperty(getModelDefaultSelectionKey(instance), value);
+            store.put(getModelDefaultSelectionKey(instance), value);
         }
+    }
+
+    /**
+     * The input components of one enum value
+     */
+    private static class InputForm
+    {
+        private final String name;
+        private final JPanel panel = new JPanel(new GridLayout(0, 2));
+        private final List<JComponent> fields = new ArrayList<>();
 
 
-        private String loadParamValue(final IInstanceableEnum instance, final IInstanceableParameter param)
+        InputForm(final String name)
         {
-            return prop.getProperty(getModelParameterKey(instance, param), param.getDefaultValue());
+            this.name = name;
+        }
+    }
+
+    /**
+     * Input forms in access order. The least recently shown form is removed, if there are too many.
+     */
+    private class InputFormCache extends LinkedHashMap<IInstanceableEnum, InputForm>
+    {
+        private static final long serialVersionUID = 2372016391425338462L;
+
+
+        InputFormCache()
+        {
+            super(16, 0.75f, true);
+        }
+
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<IInstanceableEnum, InputForm> eldest)
+        {
+            if (size() > maxCachedForms)
+            {
+                inputPanel.remove(eldest.getValue().panel);
+                return true;
+            }
+            return false;
         }
     }
 
@@ -248,11 +436,31 @@ public class InstanceablePanel extends JPanel
         @Override
         public void actionPerformed(final ActionEvent e)
         {
-            createInstance();
+            if (createExecutor == null)
+            {
+                createInstance();
+                return;
+            }
+            createInstanceAsync(createExecutor, SwingUtilities::invokeLater).whenComplete((instance, err) -> {
+                if (err != null)
+                {
+                    log.error("Could not create instance", err);
+                }
+            });
         }
     }
 
 
+    /**
+     * @param executor the executor that is used to create instances when the Create button is pressed,
+     *                 null to create them on the Event Dispatch Thread (default)
+     */
+    public void setCreateExecutor(final Executor executor)
+    {
+        createExecutor = executor;
+    }
+
+
     public void createInstance()
     {
         IInstanceableEnum instanceName = (IInstanceableEnum) cbbInstances.getSelectedItem();
@@ -261,14 +469,58 @@ public class InstanceablePanel extends JPanel
             return;
         }
 
+        List<String> params = readParamValues(instanceName);
+        Object instance = instanceName.getInstanceableClass().newInstance(params);
+        notifyNewInstance(instance);
+    }
+
+
+    /**
+     * Create a new instance in the background. The parameter values are read on the calling thread,
+     * which must be the Event Dispatch Thread. The Create button is disabled while the instance is created.
+     *
+     * @param executor the executor that parses the parameters and calls the constructor
+     * @param notifyExecutor the executor that notifies the observers
+     * @return a future of the new instance (null, if nothing is selected) that completes after the observers
+     * were notified
+     */
+    public CompletableFuture<Object> createInstanceAsync(final Executor executor, final Executor notifyExecutor)
+    {
+        IInstanceableEnum instanceName = (IInstanceableEnum) cbbInstances.getSelectedItem();
+        if (instanceName == null)
+        {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<String> params = readParamValues(instanceName);
+        InstanceableClass<?> instanceableClass = instanceName.getInstanceableClass();
+        updatePendingCreations(1);
+        CompletableFuture<Object> created = CompletableFuture.supplyAsync(
+                () -> instanceableClass.newInstance(params), executor);
+        created.whenComplete((instance, err) -> SwingUtilities.invokeLater(() -> updatePendingCreations(-1)));
+        return created.thenApplyAsync(instance -> {
+            notifyNewInstance(instance);
+            return instance;
+        }, notifyExecutor);
+    }
+
+
+    private void updatePendingCreations(final int delta)
+    {
+        pendingCreations += delta;
+        updateCreateButton();
+    }
+
+
+    private List<String> readParamValues(final IInstanceableEnum instanceName)
+    {
         List<String> params = inputFields.stream().map(this::getValue).collect(Collectors.toList());
-        int i = 0;
-        for (IInstanceableParameter param : instanceName.getInstanceableClass().getAllParams())
+        String[] keys = getModelParameterKeys(instanceName);
+        for (int i = 0; i < keys.length; i++)
         {
-            saveParamValue(instanceName, param, params.get(i++));
+            store.put(keys[i], params.get(i));
         }
-        Object instance = instanceName.getInstanceableClass().newInstance(params);
-        notifyNewInstance(instance);
+        return params;
     }
 
 
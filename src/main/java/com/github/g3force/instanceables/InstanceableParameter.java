@@ -8,8 +8,6 @@
  */
 package com.github.g3force.instanceables;
 
-import com.github.g3force.s2vconverter.String2ValueConverter;
-
 import java.util.Arrays;
 import java.util.List;
 
@@ -19,12 +17,12 @@ import java.util.List;
  */
 public class InstanceableParameter implements IInstanceableParameter
 {
-    private static final String2ValueConverter VALUE_CONVERTER = String2ValueConverter.getDefault();
-
     private final Class<?> impl;
     private final String description;
     private final String defaultValue;
     private final List<Class<?>> genericsImpls;
+    private volatile ParseCache<Object> parseCache = null;
+    private volatile IValueConverter converter = null;
 
 
     public InstanceableParameter(
@@ -41,6 +39,59 @@ public class InstanceableParameter implements IInstanceableParameter
     }
 
 
+    /**
+     * Cache parsed values by their string representation. Only use this for immutable parameter types,
+     * as the same value instance is returned for equal strings. Values of different converters are cached separately.
+     *
+     * @param maximumSize the maximum number of cached values per converter
+     * @return this
+     */
+    public InstanceableParameter parseCache(final int maximumSize)
+    {
+        parseCache = new ParseCache<>(maximumSize);
+        return this;
+    }
+
+
+    /**
+     * Parse the values of this parameter with a custom converter.
+     * It takes precedence over the converter of the {@link InstanceableClass}.
+     *
+     * @param converter the converter, or null to use the converter of the class
+     * @return this
+     */
+    public InstanceableParameter converter(final IValueConverter converter)
+    {
+        this.converter = converter;
+        ParseCache<Object> cache = parseCache;
+        if (cache != null)
+        {
+            cache.clear();
+        }
+        return this;
+    }
+
+
+    /**
+     * @return the number of parsed values that were taken from the parse cache
+     */
+    public long getParseCacheHits()
+    {
+        ParseCache<Object> cache = parseCache;
+        return cache == null ? 0 : cache.getHits();
+    }
+
+
+    /**
+     * @return the number of values that were parsed, because they were not in the parse cache
+     */
+    public long getParseCacheMisses()
+    {
+        ParseCache<Object> cache = parseCache;
+        return cache == null ? 0 : cache.getMisses();
+    }
+
+
     /**
      * Parse given String to value
      *
@@ -50,11 +101,95 @@ public class InstanceableParameter implements IInstanceableParameter
     @Override
     public Object parseString(final String value)
     {
-        if (genericsImpls.isEmpty())
+        return parseString(value, null);
+    }
+
+
+    @Override
+    public Object parseString(final String value, final IValueConverter classConverter)
+    {
+        IValueConverter c = converterFor(classConverter);
+        ParseCache<Object> cache = parseCache;
+        if (cache != null && value != null)
+        {
+            IValueConverter valueConverter = c;
+            return cache.get(c, value, v -> parse(v, valueConverter));
+        }
+        return parse(value, c);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private Object parse(final String value, final IValueConverter c)
+    {
+        return c.parse(impl, genericsImpls, value);
+    }
+
+
+    private IValueConverter converterFor(final IValueConverter classConverter)
+    {
+        IValueConverter c = converter;
+        if (c == null)
+        {
+            c = classConverter == null ? IValueConverter.getDefault() : classConverter;
+        }
+        return c;
+    }
+
+
+    /**
+     * Parse a non-null value of type <code>int</code>, without boxing unless the parse cache is enabled
+     *
+     * @param value the value to be parsed
+     * @param classConverter the converter of the class, or null
+     * @return the parsed value
+     */
+    int parseInt(final String value, final IValueConverter classConverter)
+    {
+        if (parseCache != null)
+        {
+            return (Integer) parseString(value, classConverter);
+        }
+        return converterFor(classConverter).parseInt(value);
+    }
+
+
+    /**
+     * @see #parseInt(String, IValueConverter)
+     */
+    long parseLong(final String value, final IValueConverter classConverter)
+    {
+        if (parseCache != null)
+        {
+            return (Long) parseString(value, classConverter);
+        }
+        return converterFor(classConverter).parseLong(value);
+    }
+
+
+    /**
+     * @see #parseInt(String, IValueConverter)
+     */
+    double parseDouble(final String value, final IValueConverter classConverter)
+    {
+        if (parseCache != null)
+        {
+            return (Double) parseString(value, classConverter);
+        }
+        return converterFor(classConverter).parseDouble(value);
+    }
+
+
+    /**
+     * @see #parseInt(String, IValueConverter)
+     */
+    boolean parseBoolean(final String value, final IValueConverter classConverter)
+    {
+        if (parseCache != null)
         {
-            return VALUE_CONVERTER.parseString(impl, value);
+            return (Boolean) parseString(value, classConverter);
         }
-        return VALUE_CONVERTER.parseString(impl, genericsImpls, value);
+        return converterFor(classConverter).parseBoolean(value);
     }
 
 
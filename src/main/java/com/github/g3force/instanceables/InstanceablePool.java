@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+
+/**
+ * A bounded pool of instances of an {@link InstanceableClass}.
+ * Released instances are kept in stripes that are selected by the current thread, so threads rarely contend.
+ * A recycled instance is reset with the reset callback and reinitialized with the default values of all setters,
+ * its constructor is not called again.
+ *
+ * @param <T> the type of the instances
+ */
+public class InstanceablePool<T>
+{
+    private final InstanceableClass<T> instanceableClass;
+    private final Consumer<? super T> reset;
+    private final Stripe<T>[] stripes;
+    private final int stripeMask;
+    private final LongAdder created = new LongAdder();
+    private final LongAdder recycled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+
+    /**
+     * @param instanceableClass the class to create instances with
+     * @param maximumSize the maximum number of pooled instances
+     * @param reset a callback that resets a pooled instance before it is reused, or null
+     */
+    @SuppressWarnings("unchecked")
+    public InstanceablePool(
+        final InstanceableClass<T> instanceableClass,
+        final int maximumSize,
+        final Consumer<? super T> reset
+    )
+    {
+        if (maximumSize <= 0)
+        {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        this.instanceableClass = instanceableClass;
+        this.reset = reset;
+        int numStripes = Math.min(Integer.highestOneBit(maximumSize),
+                Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+        stripes = (Stripe<T>[]) new Stripe<?>[numStripes];
+        for (int i = 0; i < numStripes; i++)
+        {
+            stripes[i] = new Stripe<>(maximumSize / numStripes + (i < maximumSize % numStripes ? 1 : 0));
+        }
+        stripeMask = numStripes - 1;
+    }
+
+
+    /**
+     * Take an instance from the pool or create a new one, if the pool of the current thread is empty
+     *
+     * @return an instance initialized with the default values
+     * @throws InstanceableClass.NotCreateableException if a new instance could not be created
+     */
+    public T acquire()
+    {
+        T instance = stripe().poll();
+        if (instance == null)
+        {
+            created.increment();
+            return instanceableClass.newDefaultInstance();
+        }
+        if (reset != null)
+        {
+            reset.accept(instance);
+        }
+        instanceableClass.applyDefaultSetters(instance);
+        recycled.increment();
+        return instance;
+    }
+
+
+    /**
+     * Return an instance to the pool. The instance must not be used afterwards.
+     * If the pool of the current thread is full, the instance is dropped.
+     *
+     * @param instance the instance to return
+     */
+    public void release(final T instance)
+    {
+        if (!stripe().offer(instance))
+        {
+            dropped.increment();
+        }
+    }
+
+
+    private Stripe<T> stripe()
+    {
+        return stripes[(int) Thread.currentThread().getId() & stripeMask];
+    }
+
+
+    /**
+     * @return the number of instances that are currently pooled
+     */
+    public int size()
+    {
+        int size = 0;
+        for (Stripe<T> stripe : stripes)
+        {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+
+    /**
+     * @return the maximum number of pooled instances
+     */
+    public int getMaximumSize()
+    {
+        int maximumSize = 0;
+        for (Stripe<T> stripe : stripes)
+        {
+            maximumSize += stripe.capacity;
+        }
+        return maximumSize;
+    }
+
+
+    /**
+     * @return the number of instances that were created, because no pooled instance was available
+     */
+    public long getCreated()
+    {
+        return created.sum();
+    }
+
+
+    /**
+     * @return the number of pooled instances that were reused
+     */
+    public long getRecycled()
+    {
+        return recycled.sum();
+    }
+
+
+    /**
+     * @return the number of released instances that were dropped, because the pool was full
+     */
+    public long getDropped()
+    {
+        return dropped.sum();
+    }
+
+
+    private static class Stripe<T>
+    {
+        private final int capacity;
+        private final ArrayDeque<T> instances;
+
+
+        Stripe(final int capacity)
+        {
+            this.capacity = capacity;
+            instances = new ArrayDeque<>(capacity);
+        }
+
+
+        synchronized T poll()
+        {
+            return instances.pollLast();
+        }
+
+
+        synchronized boolean offer(final T instance)
+        {
+            if (instances.size() >= capacity)
+            {
+                return false;
+            }
+            instances.addLast(instance);
+            return true;
+        }
+
+
+        synchronized int size()
+        {
+            return instances.size();
+        }
+    }
+}
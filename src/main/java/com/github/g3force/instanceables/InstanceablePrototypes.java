@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import com.github.g3force.instanceables.InstanceableClass.NotCreateableException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+
+/**
+ * Creates instances of an {@link InstanceableClass} by copying a template instance.
+ * One template is created with the constructor and the setters for each distinct set of parsed parameter values,
+ * further instances with the same values are copies of it. Templates are kept in a bounded cache,
+ * so the parameter types should implement {@link Object#equals(Object)} and {@link Object#hashCode()}.
+ * <p>
+ * Templates are never handed out. Concurrent requests for a new parameter set may create more than one template,
+ * only one of them is cached.
+ *
+ * @param <T> the type of the instances
+ */
+public class InstanceablePrototypes<T>
+{
+    private final InstanceableClass<T> instanceableClass;
+    private final UnaryOperator<T> copier;
+    private final BoundedCache<List<Object>, T> templates;
+
+
+    /**
+     * @param instanceableClass the class to create templates with
+     * @param copier a function that creates an independent copy of a template,
+     *            or null to copy with the public <code>clone()</code> method of a {@link Cloneable} class
+     * @param maxTemplates the maximum number of cached templates
+     * @throws IllegalArgumentException if no copier is given and the class can not be cloned
+     */
+    public InstanceablePrototypes(
+        final InstanceableClass<T> instanceableClass,
+        final UnaryOperator<T> copier,
+        final int maxTemplates
+    )
+    {
+        this.instanceableClass = instanceableClass;
+        this.copier = copier == null ? cloner(instanceableClass.getImpl()) : copier;
+        templates = new BoundedCache<>(maxTemplates);
+    }
+
+
+    private static <T> UnaryOperator<T> cloner(final Class<?> impl)
+    {
+        if (!Cloneable.class.isAssignableFrom(impl))
+        {
+            throw new IllegalArgumentException(impl.getName() + " is not Cloneable and no copier was given");
+        }
+        MethodHandle clone;
+        try
+        {
+            Method method = impl.getMethod("clone");
+            clone = MethodHandles.publicLookup().unreflect(method)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException err)
+        {
+            throw new IllegalArgumentException(impl.getName() + " has no public clone method", err);
+        }
+        return template -> {
+            try
+            {
+                @SuppressWarnings("unchecked")
+                T copy = (T) (Object) clone.invokeExact((Object) template);
+                return copy;
+            } catch (Error | RuntimeException err)
+            {
+                throw err;
+            } catch (Throwable err)
+            {
+                throw new NotCreateableException("Can not clone " + impl.getName(), err);
+            }
+        };
+    }
+
+
+    /**
+     * Create a new instance as a copy of the template for the given values
+     *
+     * @param values the parameters to the constructor and to the setters
+     * @return a new instance
+     * @throws NotCreateableException if the template could not be created or copied
+     */
+    public T newInstance(final List<String> values)
+    {
+        return newInstance(instanceableClass.parseValues(values));
+    }
+
+
+    /**
+     * Create a new instance as a copy of the template for the default values.
+     * The default values are only parsed once.
+     *
+     * @return a new instance
+     * @throws NotCreateableException if the template could not be created or copied
+     */
+    public T newDefaultInstance()
+    {
+        return newInstance(instanceableClass.getParsedDefaultValues());
+    }
+
+
+    private T newInstance(final Object[] parsed)
+    {
+        T template = templates.get(Arrays.asList(parsed), key -> instanceableClass.newParsedInstance(parsed));
+        return copy(template);
+    }
+
+
+    private T copy(final T template)
+    {
+        T copy;
+        try
+        {
+            copy = copier.apply(template);
+        } catch (NotCreateableException err)
+        {
+            throw err;
+        } catch (RuntimeException err)
+        {
+            throw new NotCreateableException("Can not copy template", err);
+        }
+        if (copy == null || copy == template)
+        {
+            throw new NotCreateableException("Copier did not create a new instance of " + template);
+        }
+        return copy;
+    }
+
+
+    /**
+     * @return the number of cached templates
+     */
+    public int getTemplateCount()
+    {
+        return templates.size();
+    }
+
+
+    /**
+     * @return the number of instances that were copied from a cached template
+     */
+    public long getTemplateHits()
+    {
+        return templates.getHits();
+    }
+
+
+    /**
+     * @return the number of templates that were created with the constructor and the setters
+     */
+    public long getTemplateMisses()
+    {
+        return templates.getMisses();
+    }
+}
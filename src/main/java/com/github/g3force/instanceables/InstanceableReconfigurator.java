@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Changes the setter values of existing instances of an {@link InstanceableClass} in place.
+ * The raw values that were last applied to each instance are remembered, so only setters whose value changed
+ * are called again. Instances are referenced weakly and forgotten when they are collected.
+ * <p>
+ * Instances that were not created by this reconfigurator have no known values, so all given values are applied
+ * on their first reconfiguration.
+ *
+ * @param <T> the type of the instances
+ */
+public class InstanceableReconfigurator<T>
+{
+    private final InstanceableClass<T> instanceableClass;
+    private final int numCtorParams;
+    private final int numSetters;
+    private final BoundedCache<String, Object>[] parsedValues;
+    private final ConcurrentHashMap<InstanceKey, String[]> appliedValues = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+
+    /**
+     * @param instanceableClass the class of the instances
+     * @param maxCachedValues the maximum number of cached parsed values per setter, 0 to parse every change.
+     *            Cached values are shared by all instances, so only cache immutable values.
+     */
+    @SuppressWarnings("unchecked")
+    public InstanceableReconfigurator(final InstanceableClass<T> instanceableClass, final int maxCachedValues)
+    {
+        this.instanceableClass = instanceableClass;
+        numCtorParams = instanceableClass.getCtorParamCount();
+        numSetters = instanceableClass.getAllParams().size() - numCtorParams;
+        parsedValues = (BoundedCache<String, Object>[]) new BoundedCache<?, ?>[numSetters];
+        if (maxCachedValues > 0)
+        {
+            for (int i = 0; i < numSetters; i++)
+            {
+                parsedValues[i] = new BoundedCache<>(maxCachedValues);
+            }
+        }
+    }
+
+
+    /**
+     * Create a new instance and remember its setter values
+     *
+     * @param values the parameters to the constructor and to the setters
+     * @return a new instance
+     * @throws InstanceableClass.NotCreateableException if the instance could not be created
+     */
+    public T newInstance(final List<String> values)
+    {
+        return track(instanceableClass.parseValues(values), values);
+    }
+
+
+    /**
+     * Create a new instance with the default values and remember its setter values.
+     * The default values are only parsed once.
+     *
+     * @return a new instance
+     * @throws InstanceableClass.NotCreateableException if the instance could not be created
+     */
+    public T newDefaultInstance()
+    {
+        return track(instanceableClass.getParsedDefaultValues(), instanceableClass.getDefaultValueStrings());
+    }
+
+
+    private T track(final Object[] parsed, final List<String> values)
+    {
+        T instance = instanceableClass.newParsedInstance(parsed);
+        String[] raw = values.subList(numCtorParams, values.size()).toArray(new String[0]);
+        expungeCollected();
+        appliedValues.put(new InstanceKey(instance, collected), raw);
+        return instance;
+    }
+
+
+    /**
+     * Apply the setters whose value differs from the value that was last applied to the instance.
+     * All changed values are parsed before the first setter is called.
+     *
+     * @param instance the instance to change
+     * @param changes the new raw values by the description of the setter
+     * @return the number of setters that were called
+     * @throws IllegalArgumentException if a description does not belong to a setter
+     * @throws InstanceableClass.NotCreateableException if a value can not be parsed
+     */
+    public int reconfigure(final T instance, final Map<String, String> changes)
+    {
+        return reconfigure(instance, resolve(changes));
+    }
+
+
+    /**
+     * Reconfigure many instances with the same changes, see {@link #reconfigure(Object, Map)}.
+     * Each changed value is parsed once for all instances.
+     *
+     * @param instances the instances to change
+     * @param changes the new raw values by the description of the setter
+     * @return the number of setters that were called for all instances
+     * @throws IllegalArgumentException if a description does not belong to a setter
+     * @throws InstanceableClass.NotCreateableException if a value can not be parsed
+     */
+    public int reconfigureAll(final Collection<? extends T> instances, final Map<String, String> changes)
+    {
+        Change[] resolved = resolve(changes);
+        int count = 0;
+        for (T instance : instances)
+        {
+            count += reconfigure(instance, resolved);
+        }
+        return count;
+    }
+
+
+    private Change[] resolve(final Map<String, String> changes)
+    {
+        List<Change> resolved = new ArrayList<>(changes.size());
+        for (Map.Entry<String, String> entry : changes.entrySet())
+        {
+            int index = instanceableClass.indexOf(entry.getKey());
+            if (index < numCtorParams)
+            {
+                throw new IllegalArgumentException("Not a setter of " + instanceableClass.getImpl().getName()
+                        + ": " + entry.getKey());
+            }
+            resolved.add(new Change(instanceableClass, index, entry.getValue(),
+                    parsedValues[index - numCtorParams]));
+        }
+        resolved.sort(Comparator.comparingInt(c -> c.index));
+        return resolved.toArray(new Change[0]);
+    }
+
+
+    private int reconfigure(final T instance, final Change[] changes)
+    {
+        String[] raw = getAppliedValues(instance);
+        synchronized (raw)
+        {
+            boolean[] changed = new boolean[changes.length];
+            for (int i = 0; i < changes.length; i++)
+            {
+                Change change = changes[i];
+                String current = raw[change.index - numCtorParams];
+                changed[i] = current == null || !Objects.equals(current, change.value);
+                if (changed[i])
+                {
+                    change.parse();
+                }
+            }
+            int count = 0;
+            for (int i = 0; i < changes.length; i++)
+            {
+                if (changed[i])
+                {
+                    Change change = changes[i];
+                    instanceableClass.applySetter(change.index, instance, change.parsed);
+                    raw[change.index - numCtorParams] = change.value;
+                    count++;
+                }
+            }
+            applied.add(count);
+            skipped.add(changes.length - (long) count);
+            return count;
+        }
+    }
+
+
+    private String[] getAppliedValues(final T instance)
+    {
+        expungeCollected();
+        String[] raw = appliedValues.get(new InstanceKey(instance, null));
+        if (raw == null)
+        {
+            String[] unknown = new String[numSetters];
+            raw = appliedValues.putIfAbsent(new InstanceKey(instance, collected), unknown);
+            if (raw == null)
+            {
+                raw = unknown;
+            }
+        }
+        return raw;
+    }
+
+
+    private void expungeCollected()
+    {
+        Reference<?> ref;
+        while ((ref = collected.poll()) != null)
+        {
+            appliedValues.remove(ref);
+        }
+    }
+
+
+    /**
+     * @return the number of setters that were called by all reconfigurations
+     */
+    public long getAppliedCount()
+    {
+        return applied.sum();
+    }
+
+
+    /**
+     * @return the number of setters that were skipped, because their value did not change
+     */
+    public long getSkippedCount()
+    {
+        return skipped.sum();
+    }
+
+
+    /**
+     * @return the number of instances whose values are remembered
+     */
+    public int getTrackedCount()
+    {
+        expungeCollected();
+        return appliedValues.size();
+    }
+
+
+    /**
+     * A changed raw value of a setter, parsed on first use
+     */
+    private static class Change
+    {
+        private final InstanceableClass<?> instanceableClass;
+        private final int index;
+        private final String value;
+        private final BoundedCache<String, Object> cache;
+        private Object parsed;
+        private boolean isParsed = false;
+
+
+        Change(
+            final InstanceableClass<?> instanceableClass,
+            final int index,
+            final String value,
+            final BoundedCache<String, Object> cache
+        )
+        {
+            this.instanceableClass = instanceableClass;
+            this.index = index;
+            this.value = value;
+            this.cache = cache;
+        }
+
+
+        void parse()
+        {
+            if (isParsed)
+            {
+                return;
+            }
+            IInstanceableParameter param = instanceableClass.getAllParams().get(index);
+            parsed = cache == null || value == null
+                    ? instanceableClass.parse(param, index, value)
+                    : cache.get(value, v -> instanceableClass.parse(param, index, v));
+            isParsed = true;
+        }
+    }
+
+
+    /**
+     * A weak reference to an instance that compares by identity
+     */
+    private static final class InstanceKey extends WeakReference<Object>
+    {
+        private final int hash;
+
+
+        InstanceKey(final Object instance, final ReferenceQueue<Object> queue)
+        {
+            super(instance, queue);
+            hash = System.identityHashCode(instance);
+        }
+
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof InstanceKey))
+            {
+                return false;
+            }
+            Object instance = get();
+            return instance != null && instance == ((InstanceKey) o).get();
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import com.github.g3force.instanceables.InstanceableClass.NotCreateableException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+
+/**
+ * A central index of {@link IInstanceableEnum}s by their canonical class name and value name.
+ * The creation paths of all registered enum values can be compiled in parallel with {@link #warmUp()}.
+ * <p>
+ * In {@link #lazy(boolean) lazy mode}, registered enums are neither initialized nor indexed
+ * until one of their values is looked up, so the startup cost depends on the enums that are used.
+ */
+public class InstanceableRegistry
+{
+    private static final InstanceableRegistry DEFAULT_REGISTRY = new InstanceableRegistry();
+
+    private final Map<Class<?>, Map<String, IInstanceableEnum>> valuesByType = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, IInstanceableEnum>> valuesByTypeName = new ConcurrentHashMap<>();
+    /** enums that were registered in lazy mode and not looked up yet, by their canonical name */
+    private final Map<String, Class<?>> pendingTypes = new ConcurrentHashMap<>();
+    private volatile boolean lazy = false;
+    private ForkJoinPool forkJoinPool = null;
+
+
+    /**
+     * @return the registry that is used by {@link IInstanceableEnum#parse(String)}
+     */
+    public static InstanceableRegistry getDefault()
+    {
+        return DEFAULT_REGISTRY;
+    }
+
+
+    /**
+     * @param pool the pool that is used by {@link #warmUp()}, null for the common pool
+     * @return this
+     */
+    public InstanceableRegistry forkJoinPool(final ForkJoinPool pool)
+    {
+        forkJoinPool = pool;
+        return this;
+    }
+
+
+    /**
+     * Defer the indexing of enums that are registered from now on to their first lookup.
+     * {@link #warmUp()} only compiles enums that were already looked up.
+     *
+     * @param enabled true to register enums lazily
+     * @return this
+     */
+    public InstanceableRegistry lazy(final boolean enabled)
+    {
+        lazy = enabled;
+        return this;
+    }
+
+
+    /**
+     * Register all values of an enum
+     *
+     * @param type an enum class that implements {@link IInstanceableEnum}
+     * @return this
+     * @throws IllegalArgumentException if the type is not an enum
+     */
+    public InstanceableRegistry register(final Class<? extends IInstanceableEnum> type)
+    {
+        if (lazy && !valuesByType.containsKey(type))
+        {
+            if (!type.isEnum())
+            {
+                throw new IllegalArgumentException("Not an instanceable enum: " + type);
+            }
+            pendingTypes.put(type.getCanonicalName(), type);
+        } else
+        {
+            index(type);
+        }
+        return this;
+    }
+
+
+    private Map<String, IInstanceableEnum> index(final Class<?> type)
+    {
+        Map<String, IInstanceableEnum> values = valuesByType.get(type);
+        if (values != null)
+        {
+            return values;
+        }
+        Object[] constants = type.getEnumConstants();
+        if (constants == null || !IInstanceableEnum.class.isAssignableFrom(type))
+        {
+            throw new IllegalArgumentException("Not an instanceable enum: " + type);
+        }
+        Map<String, IInstanceableEnum> newValues = new HashMap<>();
+        for (Object constant : constants)
+        {
+            IInstanceableEnum value = (IInstanceableEnum) constant;
+            newValues.put(value.name(), value);
+        }
+        values = Collections.unmodifiableMap(newValues);
+        valuesByTypeName.put(type.getCanonicalName(), values);
+        valuesByType.put(type, values);
+        pendingTypes.remove(type.getCanonicalName(), type);
+        return values;
+    }
+
+
+    /**
+     * Find an enum value. Enums that are not registered yet are registered on the first lookup.
+     *
+     * @param type the enum class
+     * @param name the name of the enum value
+     * @return the enum value or null, if the type has no value with this name
+     * @throws IllegalArgumentException if the type is not an enum
+     */
+    public IInstanceableEnum find(final Class<?> type, final String name)
+    {
+        return index(type).get(name);
+    }
+
+
+    /**
+     * Find an enum value of a registered enum
+     *
+     * @param canonicalName the canonical name of the enum class
+     * @param name the name of the enum value
+     * @return the enum value or null, if there is no such enum value
+     */
+    public IInstanceableEnum find(final String canonicalName, final String name)
+    {
+        Map<String, IInstanceableEnum> values = valuesByTypeName.get(canonicalName);
+        if (values == null)
+        {
+            Class<?> pending = pendingTypes.get(canonicalName);
+            if (pending == null)
+            {
+                return null;
+            }
+            values = index(pending);
+        }
+        return values.get(name);
+    }
+
+
+    /**
+     * @return all registered enum classes, including the ones that are not indexed yet in lazy mode
+     */
+    public Set<Class<?>> getTypes()
+    {
+        if (pendingTypes.isEmpty())
+        {
+            return Collections.unmodifiableSet(valuesByType.keySet());
+        }
+        Set<Class<?>> types = new HashSet<>(valuesByType.keySet());
+        types.addAll(pendingTypes.values());
+        return Collections.unmodifiableSet(types);
+    }
+
+
+    /**
+     * @return the number of enums that were registered lazily and not looked up yet
+     */
+    public int getPendingCount()
+    {
+        return pendingTypes.size();
+    }
+
+
+    /**
+     * Compile the creation paths of all indexed enum values in parallel.
+     * This resolves and validates all constructors, so wrong signatures are found at startup.
+     *
+     * @return the warm-up result of each registered enum
+     */
+    public List<WarmUpResult> warmUp()
+    {
+        ForkJoinPool pool = forkJoinPool == null ? ForkJoinPool.commonPool() : forkJoinPool;
+        List<Map.Entry<Class<?>, Map<String, IInstanceableEnum>>> entries = new ArrayList<>(valuesByType.entrySet());
+        return pool.submit(() -> entries.parallelStream()
+                .map(e -> warmUp(e.getKey(), e.getValue().values()))
+                .collect(Collectors.toList())).join();
+    }
+
+
+    private WarmUpResult warmUp(final Class<?> type, final Iterable<IInstanceableEnum> values)
+    {
+        long start = System.nanoTime();
+        List<NotCreateableException> errors = new ArrayList<>();
+        for (IInstanceableEnum value : values)
+        {
+            try
+            {
+                value.getInstanceableClass().compile();
+            } catch (NotCreateableException err)
+            {
+                errors.add(new NotCreateableException(type.getCanonicalName() + "." + value.name()
+                        + ": " + err.getMessage(), err));
+            }
+        }
+        return new WarmUpResult(type, System.nanoTime() - start, errors);
+    }
+
+
+    /**
+     * The result of warming up one enum
+     */
+    public static class WarmUpResult
+    {
+        private final Class<?> type;
+        private final long nanos;
+        private final List<NotCreateableException> errors;
+
+
+        WarmUpResult(final Class<?> type, final long nanos, final List<NotCreateableException> errors)
+        {
+            this.type = type;
+            this.nanos = nanos;
+            this.errors = Collections.unmodifiableList(errors);
+        }
+
+
+        /**
+         * @return the enum class
+         */
+        public Class<?> getType()
+        {
+            return type;
+        }
+
+
+        /**
+         * @return the time it took to compile all values of the enum
+         */
+        public long getNanos()
+        {
+            return nanos;
+        }
+
+
+        /**
+         * @return the errors of the values that could not be compiled
+         */
+        public List<NotCreateableException> getErrors()
+        {
+            return errors;
+        }
+
+
+        @Override
+        public String toString()
+        {
+            return "WarmUpResult{" +
+                    "type=" + type.getCanonicalName() +
+                    ", nanos=" + nanos +
+                    ", errors=" + errors +
+                    '}';
+        }
+    }
+}
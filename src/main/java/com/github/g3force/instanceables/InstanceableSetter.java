@@ -1,7 +1,5 @@
 package com.github.g3force.instanceables;
 
-import com.github.g3force.s2vconverter.String2ValueConverter;
-
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.BiConsumer;
@@ -15,13 +13,13 @@ import java.util.function.BiConsumer;
  */
 public class InstanceableSetter<T, R> implements IInstanceableParameter
 {
-    private static final String2ValueConverter VALUE_CONVERTER = String2ValueConverter.getDefault();
-
     private final Class<T> impl;
     private final String description;
     private final String defaultValue;
     private final List<Class<?>> genericsImpls;
     private final BiConsumer<R, T> setter;
+    private volatile ParseCache<T> parseCache = null;
+    private volatile IValueConverter converter = null;
 
 
     public InstanceableSetter(
@@ -40,14 +38,88 @@ public class InstanceableSetter<T, R> implements IInstanceableParameter
     }
 
 
+    /**
+     * Cache parsed values by their string representation. Only use this for immutable parameter types,
+     * as the same value instance is returned for equal strings. Values of different converters are cached separately.
+     *
+     * @param maximumSize the maximum number of cached values per converter
+     * @return this
+     */
+    public InstanceableSetter<T, R> parseCache(final int maximumSize)
+    {
+        parseCache = new ParseCache<>(maximumSize);
+        return this;
+    }
+
+
+    /**
+     * Parse the values of this parameter with a custom converter.
+     * It takes precedence over the converter of the {@link InstanceableClass}.
+     *
+     * @param converter the converter, or null to use the converter of the class
+     * @return this
+     */
+    public InstanceableSetter<T, R> converter(final IValueConverter converter)
+    {
+        this.converter = converter;
+        ParseCache<T> cache = parseCache;
+        if (cache != null)
+        {
+            cache.clear();
+        }
+        return this;
+    }
+
+
+    /**
+     * @return the number of parsed values that were taken from the parse cache
+     */
+    public long getParseCacheHits()
+    {
+        ParseCache<T> cache = parseCache;
+        return cache == null ? 0 : cache.getHits();
+    }
+
+
+    /**
+     * @return the number of values that were parsed, because they were not in the parse cache
+     */
+    public long getParseCacheMisses()
+    {
+        ParseCache<T> cache = parseCache;
+        return cache == null ? 0 : cache.getMisses();
+    }
+
+
     @Override
     public T parseString(final String value)
     {
-        if (genericsImpls.isEmpty())
+        return parseString(value, null);
+    }
+
+
+    @Override
+    public T parseString(final String value, final IValueConverter classConverter)
+    {
+        IValueConverter c = converter;
+        if (c == null)
+        {
+            c = classConverter == null ? IValueConverter.getDefault() : classConverter;
+        }
+        ParseCache<T> cache = parseCache;
+        if (cache != null && value != null)
         {
-            return VALUE_CONVERTER.parse(impl, value);
+            IValueConverter valueConverter = c;
+            return cache.get(c, value, v -> parse(v, valueConverter));
         }
-        return VALUE_CONVERTER.parse(impl, genericsImpls, value);
+        return parse(value, c);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private T parse(final String value, final IValueConverter c)
+    {
+        return (T) c.parse(impl, genericsImpls, value);
     }
 
 
@@ -58,6 +130,19 @@ public class InstanceableSetter<T, R> implements IInstanceableParameter
     }
 
 
+    /**
+     * Apply an already parsed value
+     *
+     * @param instance the instance to apply the value to
+     * @param value a value of type T, as returned by {@link #parseString(String)}
+     */
+    @SuppressWarnings("unchecked")
+    void applyValue(R instance, Object value)
+    {
+        setter.accept(instance, (T) value);
+    }
+
+
     @Override
     public Class<T> getImpl()
     {
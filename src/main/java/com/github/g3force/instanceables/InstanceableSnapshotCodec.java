@@ -0,0 +1,599 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * A binary encoding of the parameters of an {@link InstanceableClass}, in the order of
+ * {@link InstanceableClass#getAllParams()}.
+ * Primitives, their wrappers, strings and enums are stored in binary form and are restored without
+ * string parsing. Parameters of other types are stored as strings and parsed on read.
+ * <p>
+ * A snapshot starts with a header that contains a format version and a signature of the parameter types
+ * and descriptions, so snapshots of a different parameter layout are rejected.
+ * The codec captures the parameters when it is created, so create it after the class is fully configured.
+ *
+ * @param <T> the type of the instances
+ */
+public class InstanceableSnapshotCodec<T>
+{
+    private static final int MAGIC = 0x494E5354;
+    private static final byte VERSION = 1;
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+
+    private final InstanceableClass<T> instanceableClass;
+    private final List<IInstanceableParameter> params;
+    private final Class<?>[] types;
+    private final Codec[] codecs;
+    private final int numCtorParams;
+    private final int signature;
+
+
+    /**
+     * @param instanceableClass the class to encode the parameters of
+     */
+    public InstanceableSnapshotCodec(final InstanceableClass<T> instanceableClass)
+    {
+        this.instanceableClass = instanceableClass;
+        params = instanceableClass.getAllParams();
+        numCtorParams = instanceableClass.getCtorParamCount();
+        types = new Class<?>[params.size()];
+        codecs = new Codec[params.size()];
+        int hash = VERSION;
+        for (int i = 0; i < types.length; i++)
+        {
+            IInstanceableParameter param = params.get(i);
+            types[i] = param.getImpl();
+            codecs[i] = Codec.of(types[i]);
+            hash = 31 * hash + types[i].getName().hashCode();
+            hash = 31 * hash + param.getDescription().hashCode();
+        }
+        signature = hash;
+    }
+
+
+    /**
+     * Encode a parameter set. Values with a binary codec are parsed once, all other values are stored as they are.
+     *
+     * @param values the parameters to the constructor and to the setters
+     * @param dst the buffer to write the snapshot to, starting at its position
+     * @throws InstanceableClass.NotCreateableException if a value can not be parsed
+     * @throws BufferOverflowException if the snapshot does not fit into the buffer
+     */
+    public void write(final List<String> values, final ByteBuffer dst)
+    {
+        dst.putInt(MAGIC).put(VERSION).putInt(signature);
+        writeRecord(values, dst);
+    }
+
+
+    /**
+     * Create a new instance from a snapshot
+     *
+     * @param src the buffer to read the snapshot from, starting at its position
+     * @return a new instance
+     * @throws InstanceableClass.NotCreateableException if the snapshot does not match the parameters
+     *             or the instance could not be created
+     */
+    public T read(final ByteBuffer src)
+    {
+        readHeader(src);
+        return readRecord(src);
+    }
+
+
+    /**
+     * Write parameter sets to a snapshot file. An existing file is replaced.
+     *
+     * @param file the file
+     * @param rows the parameters to the constructor and to the setters for each instance
+     * @throws IOException if the file could not be written
+     * @throws InstanceableClass.NotCreateableException if a value can not be parsed
+     */
+    public void writeAll(final Path file, final List<List<String>> rows) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        ByteBuffer record = ByteBuffer.allocate(256);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            buffer.putInt(MAGIC).put(VERSION).putInt(signature).putInt(rows.size());
+            for (List<String> row : rows)
+            {
+                record = encode(row, record);
+                if (record.remaining() > buffer.remaining())
+                {
+                    flush(channel, buffer);
+                }
+                if (record.remaining() > buffer.remaining())
+                {
+                    writeFully(channel, record);
+                } else
+                {
+                    buffer.put(record);
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+
+    /**
+     * Create new instances from a snapshot file. The file is mapped into memory and read without copying.
+     *
+     * @param file a file written by {@link #writeAll(Path, List)}
+     * @return the new instances in the order of the file
+     * @throws IOException if the file could not be read
+     * @throws InstanceableClass.NotCreateableException if the snapshot does not match the parameters
+     *             or an instance could not be created
+     */
+    public List<T> readAll(final Path file) throws IOException
+    {
+        MappedByteBuffer src;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            src = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        readHeader(src);
+        int count = src.getInt();
+        List<T> instances = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            instances.add(readRecord(src));
+        }
+        return instances;
+    }
+
+
+    /**
+     * @return the number of parameters that are stored as strings and parsed on read
+     */
+    public int getParsedParamCount()
+    {
+        int count = 0;
+        for (Codec codec : codecs)
+        {
+            if (codec == Codec.PARSED)
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+
+    private ByteBuffer encode(final List<String> values, final ByteBuffer record)
+    {
+        ByteBuffer buffer = record;
+        while (true)
+        {
+            buffer.clear();
+            try
+            {
+                writeRecord(values, buffer);
+                buffer.flip();
+                return buffer;
+            } catch (BufferOverflowException err)
+            {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+            }
+        }
+    }
+
+
+    private static void flush(final FileChannel channel, final ByteBuffer buffer) throws IOException
+    {
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+    }
+
+
+    private void writeRecord(final List<String> values, final ByteBuffer dst)
+    {
+        if (values.size() != params.size())
+        {
+            throw new InstanceableClass.NotCreateableException("Wrong number of parameters: " + values);
+        }
+        for (int i = 0; i < codecs.length; i++)
+        {
+            String value = values.get(i);
+            Object parsed = codecs[i] == Codec.PARSED
+                    ? value
+                    : instanceableClass.parse(params.get(i), i, value);
+            if (types[i].isPrimitive())
+            {
+                if (parsed == null)
+                {
+                    throw new InstanceableClass.NotCreateableException("Primitive parameter '"
+                            + params.get(i).getDescription() + "' (index " + i + ") can not be null");
+                }
+            } else
+            {
+                dst.put(parsed == null ? (byte) 0 : (byte) 1);
+                if (parsed == null)
+                {
+                    continue;
+                }
+            }
+            codecs[i].write(dst, parsed);
+        }
+    }
+
+
+    private void readHeader(final ByteBuffer src)
+    {
+        try
+        {
+            if (src.getInt() != MAGIC)
+            {
+                throw new InstanceableClass.NotCreateableException("Not an instanceable snapshot");
+            }
+            byte version = src.get();
+            if (version != VERSION)
+            {
+                throw new InstanceableClass.NotCreateableException("Unsupported snapshot version: " + version);
+            }
+            if (src.getInt() != signature)
+            {
+                throw new InstanceableClass.NotCreateableException(
+                        "Snapshot does not match the parameters of " + instanceableClass.getImpl().getName());
+            }
+        } catch (BufferUnderflowException err)
+        {
+            throw new InstanceableClass.NotCreateableException("Truncated snapshot header", err);
+        }
+    }
+
+
+    private T readRecord(final ByteBuffer src)
+    {
+        ArgumentVector args = instanceableClass.newBlankArgumentVector();
+        Object[] setterValues = new Object[params.size() - numCtorParams];
+        try
+        {
+            for (int i = 0; i < numCtorParams; i++)
+            {
+                if (types[i].isPrimitive())
+                {
+                    codecs[i].read(src, args, i);
+                } else
+                {
+                    args.setValue(i, readValue(src, i));
+                }
+            }
+            for (int i = numCtorParams; i < params.size(); i++)
+            {
+                setterValues[i - numCtorParams] = readValue(src, i);
+            }
+        } catch (BufferUnderflowException err)
+        {
+            throw new InstanceableClass.NotCreateableException("Truncated snapshot", err);
+        } catch (IllegalArgumentException err)
+        {
+            throw new InstanceableClass.NotCreateableException("Invalid value in snapshot", err);
+        }
+        return instanceableClass.newInstance(args, setterValues);
+    }
+
+
+    private Object readValue(final ByteBuffer src, final int index)
+    {
+        if (!types[index].isPrimitive() && src.get() == 0)
+        {
+            return null;
+        }
+        if (codecs[index] == Codec.PARSED)
+        {
+            return instanceableClass.parse(params.get(index), index, Codec.readString(src));
+        }
+        return codecs[index].read(src, types[index]);
+    }
+
+
+    /**
+     * The binary representation of a parameter type
+     */
+    private enum Codec
+    {
+        BOOLEAN
+        {
+            @Override
+            void write(final ByteBuffer dst, final Object value)
+            {
+                dst.put((Boolean) value ? (byte) 1 : (byte) 0);
+            }
+
+
+            @Override
+            Object read(final ByteBuffer src, final Class<?> type)
+            {
+                return src.get() != 0;
+            }
+
+
+            @Override
+            void read(final ByteBuffer src, final ArgumentVector args, final int index)
+            {
+                args.setBoolean(index, src.get() != 0);
+            }
+        },
+        BYTE
+        {
+            @Override
+            void write(final ByteBuffer dst, final Object value)
+            {
+                dst.put((Byte) value);
+            }
+
+
+            @Override
+            Object read(final ByteBuffer src, final Class<?> type)
+            {
+                return src.get();
+            }
+        },
+        SHORT
+        {
+            @Override
+            void write(final ByteBuffer dst, final Object value)
+            {
+                dst.putShort((Short) value);
+            }
+
+
+            @Override
+            Object read(final ByteBuffer src, final Class<?> type)
+            {
+                return src.getShort();
+            }
+        },
+        CHAR
+        {
+            @Override
+            void write(final ByteBuffer dst, final Object value)
+            {
+                dst.putChar((Character) value);
+            }
+
+
+            @Override
+            Object read(final ByteBuffer src, final Class<?> type)
+            {
+                return src.getChar();
+            }
+        },
+        INT
+        {
+            @Override
+            void write(final ByteBuffer dst, final Object value)
+            {
+                dst.putInt((Integer) value);
+            }
+
+
+            @Override
+            Object read(final ByteBuffer src, final Class<?> type)
+            {
+                return src.getInt();
+            }
+
+
+            @Override
+            void read(final ByteBuffer src, final ArgumentVector args, final int index)
+            {
+                args.setInt(index, src.getInt());
+            }
+        },
+        LONG
+        {
+            @Override
+            void write(final ByteBuffer dst, final Object value)
+            {
+                dst.putLong((Long) value);
+            }
+
+
+            @Override
+            Object read(final ByteBuffer src, final Class<?> type)
+            {
+                return src.getLong();
+            }
+
+
+            @Override
+            void read(final ByteBuffer src, final ArgumentVector args, final int index)
+            {
+                args.setLong(index, src.getLong());
+            }
+        },
+        FLOAT
+        {
+            @Override
+            void write(final ByteBuffer dst, final Object value)
+            {
+                dst.putFloat((Float) value);
+            }
+
+
+            @Override
+            Object read(final ByteBuffer src, final Class<?> type)
+            {
+                return src.getFloat();
+            }
+        },
+        DOUBLE
+        {
+            @Override
+            void write(final ByteBuffer dst, final Object value)
+            {
+                dst.putDouble((Double) value);
+            }
+
+
+            @Override
+            Object read(final ByteBuffer src, final Class<?> type)
+            {
+                return src.getDouble();
+            }
+
+
+            @Override
+            void read(final ByteBuffer src, final ArgumentVector args, final int index)
+            {
+                args.setDouble(index, src.getDouble());
+            }
+        },
+        STRING
+        {
+            @Override
+            void write(final ByteBuffer dst, final Object value)
+            {
+                writeString(dst, (String) value);
+            }
+
+
+            @Override
+            Object read(final ByteBuffer src, final Class<?> type)
+            {
+                return readString(src);
+            }
+        },
+        ENUM
+        {
+            @Override
+            void write(final ByteBuffer dst, final Object value)
+            {
+                writeString(dst, ((Enum<?>) value).name());
+            }
+
+
+            @Override
+            @SuppressWarnings({ "unchecked", "rawtypes" })
+            Object read(final ByteBuffer src, final Class<?> type)
+            {
+                return Enum.valueOf((Class) type, readString(src));
+            }
+        },
+        /** the string representation, parsed on read */
+        PARSED
+        {
+            @Override
+            void write(final ByteBuffer dst, final Object value)
+            {
+                writeString(dst, (String) value);
+            }
+
+
+            @Override
+            Object read(final ByteBuffer src, final Class<?> type)
+            {
+                return readString(src);
+            }
+        },
+        ;
+
+
+        abstract void write(ByteBuffer dst, Object value);
+
+
+        abstract Object read(ByteBuffer src, Class<?> type);
+
+
+        /**
+         * Read a value of a primitive constructor parameter into its slot
+         */
+        void read(final ByteBuffer src, final ArgumentVector args, final int index)
+        {
+            args.setValue(index, read(src, null));
+        }
+
+
+        static Codec of(final Class<?> type)
+        {
+            if (type == Boolean.TYPE || type == Boolean.class)
+            {
+                return BOOLEAN;
+            } else if (type == Byte.TYPE || type == Byte.class)
+            {
+                return BYTE;
+            } else if (type == Short.TYPE || type == Short.class)
+            {
+                return SHORT;
+            } else if (type == Character.TYPE || type == Character.class)
+            {
+                return CHAR;
+            } else if (type == Integer.TYPE || type == Integer.class)
+            {
+                return INT;
+            } else if (type == Long.TYPE || type == Long.class)
+            {
+                return LONG;
+            } else if (type == Float.TYPE || type == Float.class)
+            {
+                return FLOAT;
+            } else if (type == Double.TYPE || type == Double.class)
+            {
+                return DOUBLE;
+            } else if (type == String.class)
+            {
+                return STRING;
+            } else if (type.isEnum())
+            {
+                return ENUM;
+            }
+            return PARSED;
+        }
+
+
+        static void writeString(final ByteBuffer dst, final String value)
+        {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            dst.putInt(bytes.length);
+            dst.put(bytes);
+        }
+
+
+        static String readString(final ByteBuffer src)
+        {
+            int length = src.getInt();
+            if (length < 0 || length > src.remaining())
+            {
+                throw new BufferUnderflowException();
+            }
+            if (src.hasArray())
+            {
+                String value = new String(src.array(), src.arrayOffset() + src.position(), length,
+                        StandardCharsets.UTF_8);
+                src.position(src.position() + length);
+                return value;
+            }
+            byte[] bytes = new byte[length];
+            src.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
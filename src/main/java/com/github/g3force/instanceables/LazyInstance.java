@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+
+/**
+ * A supplier that creates an instance of an {@link InstanceableClass} on the first call of {@link #get()}
+ * and returns the same instance afterwards. It is thread-safe, the instance is created at most once.
+ * If the creation fails, the exception is thrown and the next call tries again.
+ *
+ * @param <T> the type of the instance
+ */
+public final class LazyInstance<T> implements Supplier<T>
+{
+    private final InstanceableClass<T> instanceableClass;
+    private final List<String> values;
+    private volatile T instance = null;
+
+
+    LazyInstance(final InstanceableClass<T> instanceableClass, final List<String> values)
+    {
+        this.instanceableClass = instanceableClass;
+        this.values = Collections.unmodifiableList(new ArrayList<>(values));
+    }
+
+
+    /**
+     * @return the instance, created on the first call
+     * @throws InstanceableClass.NotCreateableException if the instance could not be created
+     */
+    @Override
+    public T get()
+    {
+        T result = instance;
+        if (result == null)
+        {
+            synchronized (this)
+            {
+                result = instance;
+                if (result == null)
+                {
+                    result = instanceableClass.newInstance(values);
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * @return true, if the instance was already created
+     */
+    public boolean isCreated()
+    {
+        return instance != null;
+    }
+
+
+    /**
+     * @return the parameters to the constructor and to the setters
+     */
+    public List<String> getValues()
+    {
+        return values;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return "LazyInstance{" +
+                "impl=" + instanceableClass.getImpl().getName() +
+                ", values=" + values +
+                ", created=" + isCreated() +
+                '}';
+    }
+}
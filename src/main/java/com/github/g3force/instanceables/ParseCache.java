@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+
+/**
+ * Parsed values of a parameter by the converter that parsed them and their string representation.
+ * Each converter gets its own {@link BoundedCache}, so a value is never returned for a different converter.
+ *
+ * @param <V> the value type
+ */
+final class ParseCache<V>
+{
+    private final int maximumSize;
+    private final ConcurrentHashMap<IValueConverter, BoundedCache<String, V>> caches = new ConcurrentHashMap<>();
+    /** hits and misses of the caches that were cleared */
+    private final LongAdder clearedHits = new LongAdder();
+    private final LongAdder clearedMisses = new LongAdder();
+
+
+    ParseCache(final int maximumSize)
+    {
+        if (maximumSize <= 0)
+        {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+
+    /**
+     * Get the cached value or parse and cache it, if it is not present.
+     *
+     * @param converter the converter that parses the value
+     * @param value the string representation
+     * @param parser the function to parse an absent value with the converter
+     * @return the cached or parsed value
+     */
+    V get(final IValueConverter converter, final String value, final Function<String, ? extends V> parser)
+    {
+        BoundedCache<String, V> cache = caches.get(converter);
+        if (cache == null)
+        {
+            cache = caches.computeIfAbsent(converter, c -> new BoundedCache<>(maximumSize));
+        }
+        return cache.get(value, parser);
+    }
+
+
+    /**
+     * Remove all cached values, for example because the converter of the parameter changed
+     */
+    void clear()
+    {
+        for (IValueConverter converter : caches.keySet())
+        {
+            BoundedCache<String, V> cache = caches.remove(converter);
+            if (cache != null)
+            {
+                clearedHits.add(cache.getHits());
+                clearedMisses.add(cache.getMisses());
+            }
+        }
+    }
+
+
+    long getHits()
+    {
+        long sum = clearedHits.sum();
+        for (BoundedCache<String, V> cache : caches.values())
+        {
+            sum += cache.getHits();
+        }
+        return sum;
+    }
+
+
+    long getMisses()
+    {
+        long sum = clearedMisses.sum();
+        for (BoundedCache<String, V> cache : caches.values())
+        {
+            sum += cache.getMisses();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import java.util.Properties;
+
+
+/**
+ * Store that keeps the values in {@link Properties}. Persisting them is up to the owner of the properties.
+ */
+public class PropertiesInstanceableStore implements IInstanceableStore
+{
+    private final Properties prop;
+
+
+    public PropertiesInstanceableStore(final Properties prop)
+    {
+        this.prop = prop;
+    }
+
+
+    @Override
+    public String get(final String key, final String defaultValue)
+    {
+        return prop.getProperty(key, defaultValue);
+    }
+
+
+    @Override
+    public void put(final String key, final String value)
+    {
+        prop.setProperty(key, value);
+    }
+
+
+    /**
+     * @return the underlying properties
+     */
+    public Properties getProperties()
+    {
+        return prop;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+/**
+ * Functional interfaces for constructors with a fixed number of parameters,
+ * see {@link InstanceableClass#typedConstructor(Class)}.
+ */
+public final class TypedConstructors
+{
+    private TypedConstructors()
+    {
+    }
+
+
+    @FunctionalInterface
+    public interface ICtor0<T>
+    {
+        T create();
+    }
+
+    @FunctionalInterface
+    public interface ICtor1<T>
+    {
+        T create(Object a0);
+    }
+
+    @FunctionalInterface
+    public interface ICtor2<T>
+    {
+        T create(Object a0, Object a1);
+    }
+
+    @FunctionalInterface
+    public interface ICtor3<T>
+    {
+        T create(Object a0, Object a1, Object a2);
+    }
+
+    @FunctionalInterface
+    public interface ICtor4<T>
+    {
+        T create(Object a0, Object a1, Object a2, Object a3);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+/**
+ * A value that did not pass {@link InstanceableClass#validate(java.util.List)}.
+ */
+public final class ValidationError
+{
+    /** the index of an error that does not belong to a single parameter */
+    public static final int NO_INDEX = -1;
+
+    private final int index;
+    private final String description;
+    private final String value;
+    private final String message;
+    private final Throwable cause;
+
+
+    private ValidationError(
+        final int index,
+        final String description,
+        final String value,
+        final String message,
+        final Throwable cause
+    )
+    {
+        this.index = index;
+        this.description = description;
+        this.value = value;
+        this.message = message;
+        this.cause = cause;
+    }
+
+
+    static ValidationError parameter(
+        final int index,
+        final IInstanceableParameter param,
+        final String value,
+        final Throwable cause
+    )
+    {
+        return new ValidationError(index, param.getDescription(), value,
+                "Could not parse parameter '" + param.getDescription() + "' (index " + index + ") from value '"
+                        + value + "'",
+                cause);
+    }
+
+
+    static ValidationError wrongNumberOfParameters(final int expected, final int actual)
+    {
+        return new ValidationError(NO_INDEX, null, null,
+                "Wrong number of parameters: expected " + expected + ", got " + actual, null);
+    }
+
+
+    /**
+     * @return the index of the parameter or {@link #NO_INDEX}, if the error concerns the whole row
+     */
+    public int getIndex()
+    {
+        return index;
+    }
+
+
+    /**
+     * @return the description of the parameter or null, if the error concerns the whole row
+     */
+    public String getDescription()
+    {
+        return description;
+    }
+
+
+    /**
+     * @return the value that could not be parsed or null, if the error concerns the whole row
+     */
+    public String getValue()
+    {
+        return value;
+    }
+
+
+    /**
+     * @return a readable description of the error
+     */
+    public String getMessage()
+    {
+        return message;
+    }
+
+
+    /**
+     * @return the exception of the parser or null
+     */
+    public Throwable getCause()
+    {
+        return cause;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return "ValidationError{" +
+                "index=" + index +
+                ", message=" + message +
+                (cause == null ? "" : ", cause=" + cause) +
+                '}';
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class ArgumentVectorTest
+{
+    @Test
+    public void primitivesAreParsedWithoutBoxing()
+    {
+        BoxingConverter converter = new BoxingConverter();
+        InstanceableClass<Model> instanceableClass = new InstanceableClass<>(Model.class)
+                .ctorParam(Integer.TYPE, "count", "1")
+                .ctorParam(Double.TYPE, "factor", "1.5")
+                .ctorParam(String.class, "name", "model")
+                .converter(converter);
+        ArgumentVector args = instanceableClass.newArgumentVector();
+        converter.boxed = 0;
+
+        Model model = instanceableClass.newInstance(Arrays.asList("7", "2.5", "bench"));
+        assertEquals(7, model.count);
+        assertEquals(2.5, model.factor, 0);
+        assertEquals("bench", model.name);
+
+        args.set(0, "8").set(1, "3.5");
+        assertEquals(0, converter.boxed);
+        assertEquals(8, instanceableClass.newInstance(args).count);
+    }
+
+
+    /**
+     * Parses with a {@link FastValueConverter} and counts the values that are parsed with boxing
+     */
+    private static class BoxingConverter extends FastValueConverter
+    {
+        private int boxed = 0;
+
+
+        @Override
+        public Object parse(final Class<?> impl, final List<Class<?>> genericsImpls, final String value)
+        {
+            if (impl.isPrimitive())
+            {
+                boxed++;
+            }
+            return super.parse(impl, genericsImpls, value);
+        }
+    }
+
+
+    public static class Model
+    {
+        private final int count;
+        private final double factor;
+        private final String name;
+
+
+        public Model(final int count, final double factor, final String name)
+        {
+            this.count = count;
+            this.factor = factor;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+
+public class AsyncObserverDispatcherTest
+{
+    @Test(timeout = 10000)
+    public void blockedCreatorGivesUpWhenObserverIsRemoved() throws InterruptedException
+    {
+        List<Runnable> tasks = new CopyOnWriteArrayList<>();
+        AsyncObserverDispatcher dispatcher = new AsyncObserverDispatcher(tasks::add, 1,
+                InstanceablePanel.BackpressurePolicy.BLOCK);
+        IInstanceableObserver observer = instance -> {
+        };
+        List<IInstanceableObserver> observers = new CopyOnWriteArrayList<>(Collections.singletonList(observer));
+        dispatcher.dispatch(observers, "first");
+
+        Thread creator = new Thread(() -> dispatcher.dispatch(observers, "second"));
+        creator.start();
+        while (creator.getState() != Thread.State.TIMED_WAITING)
+        {
+            Thread.sleep(10);
+        }
+
+        observers.remove(observer);
+        dispatcher.remove(observer);
+        creator.join(2000);
+
+        assertFalse("creator is still blocked", creator.isAlive());
+        assertEquals(0, dispatcher.getQueueDepth());
+    }
+
+
+    @Test
+    public void pendingInstancesAreDeliveredFirstByTheNextDispatcher()
+    {
+        List<Object> received = new CopyOnWriteArrayList<>();
+        List<IInstanceableObserver> observers = new CopyOnWriteArrayList<>(
+                Collections.singletonList(received::add));
+        AsyncObserverDispatcher previous = new AsyncObserverDispatcher(task -> {
+        }, 10, InstanceablePanel.BackpressurePolicy.DROP);
+        previous.dispatch(observers, 1);
+        previous.dispatch(observers, 2);
+
+        AsyncObserverDispatcher next = new AsyncObserverDispatcher(Runnable::run, 10,
+                InstanceablePanel.BackpressurePolicy.DROP);
+        previous.close(next);
+        next.dispatch(observers, 3);
+        previous.dispatch(observers, 4);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4), received);
+        assertEquals(0, previous.getQueueDepth());
+    }
+
+
+    @Test
+    public void pendingInstancesAreDeliveredOnCloseWithoutNextDispatcher()
+    {
+        List<Object> received = new CopyOnWriteArrayList<>();
+        List<IInstanceableObserver> observers = new CopyOnWriteArrayList<>(
+                Collections.singletonList(received::add));
+        AsyncObserverDispatcher dispatcher = new AsyncObserverDispatcher(task -> {
+        }, 10, InstanceablePanel.BackpressurePolicy.DROP);
+        dispatcher.dispatch(observers, 1);
+        dispatcher.dispatch(observers, 2);
+
+        dispatcher.close(null);
+        dispatcher.dispatch(observers, 3);
+
+        assertEquals(Arrays.asList(1, 2, 3), received);
+    }
+
+
+    @Test
+    public void defaultExecutorIsShared()
+    {
+        assertSame(AsyncObserverDispatcher.defaultExecutor(), AsyncObserverDispatcher.defaultExecutor());
+    }
+}
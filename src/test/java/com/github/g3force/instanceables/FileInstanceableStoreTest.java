@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package com.github.g3force.instanceables;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class FileInstanceableStoreTest
+{
+    @Test
+    public void putAfterCloseIsWrittenImmediately() throws IOException
+    {
+        Path file = Files.createTempFile("instanceables", ".store");
+        try
+        {
+            FileInstanceableStore store = new FileInstanceableStore(file, 60_000);
+            store.put("a", "1");
+            store.close();
+            store.put("b", "2");
+            store.put("c", "3");
+
+            FileInstanceableStore reloaded = new FileInstanceableStore(file);
+            reloaded.close();
+            assertEquals("1", reloaded.get("a", null));
+            assertEquals("2", reloaded.get("b", null));
+            assertEquals("3", reloaded.get("c", null));
+        } finally
+        {
+            Files.deleteIfExists(file);
+        }
+    }
+
+
+    @Test(timeout = 10000)
+    public void failedWriteIsRetried() throws IOException, InterruptedException
+    {
+        Path dir = Files.createTempDirectory("instanceables");
+        Path file = dir.resolve("store");
+        try (FileInstanceableStore store = new FileInstanceableStore(file, 20))
+        {
+            Files.delete(dir);
+            store.put("a", "1");
+            Thread.sleep(100);
+            Files.createDirectory(dir);
+            while (!Files.exists(file))
+            {
+                Thread.sleep(10);
+            }
+        }
+
+        try (FileInstanceableStore reloaded = new FileInstanceableStore(file))
+        {
+            assertEquals("1", reloaded.get("a", null));
+        } finally
+        {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+}